@@ -0,0 +1,247 @@
+package controller;
+
+import model.*;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Controle de admissão na entrada de reservas (ex.: abertura de reservas online em feriados)
+ * Fica na frente do ReservaController com uma fila limitada e poucos trabalhadores, para
+ * que as reservas não disputem o lock de escrita do SQLite. Quando a fila passa do limite
+ * de recusa, a origem já tem pedidos demais em andamento ou o pedido esperou demais, a
+ * reserva é recusada na hora com SobrecargaException ("tente novamente"), mantendo a
+ * latência limitada. Cada reserva passa pelo caminho idempotente do controller, em que a
+ * verificação de conflito e a gravação são atômicas, então vários trabalhadores não
+ * reservam a mesma mesa duas vezes
+ */
+public class AdmissaoReservas {
+
+    /**
+     * Reserva recusada por sobrecarga; o chamador pode tentar novamente mais tarde
+     */
+    public static class SobrecargaException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        public SobrecargaException(String mensagem) {
+            super(mensagem);
+        }
+    }
+
+    private final ReservaController controller;
+    private final ThreadPoolExecutor executor;
+    private final int capacidadeFila;
+    private final int limiteFila;
+    private final int limitePorOrigem;
+    private final long esperaMaximaNs;
+    private final ConcurrentHashMap<String, Semaphore> emAndamentoPorOrigem = new ConcurrentHashMap<>();
+
+    // Métricas
+    private final AtomicLong aceitas = new AtomicLong();
+    private final AtomicLong recusadasFila = new AtomicLong();
+    private final AtomicLong recusadasOrigem = new AtomicLong();
+    private final AtomicLong recusadasEspera = new AtomicLong();
+    private final AtomicLong concluidas = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final Histograma esperaNaFila = new Histograma();
+
+    /**
+     * Cria o controle de admissão
+     * @param controller Controller que efetivamente faz as reservas
+     * @param trabalhadores Reservas processadas em paralelo (o SQLite tem um único escritor, então 1 ou 2)
+     * @param capacidadeFila Pedidos que cabem na fila (limite físico)
+     * @param limiteFila Profundidade da fila a partir da qual novos pedidos são recusados,
+     *                   menor que a capacidade para recusar antes de a fila encher
+     * @param limitePorOrigem Pedidos simultâneos (na fila ou em execução) por origem
+     * @param esperaMaxima Tempo máximo na fila; pedidos que esperaram mais são recusados
+     */
+    public AdmissaoReservas(ReservaController controller, int trabalhadores, int capacidadeFila,
+                            int limiteFila, int limitePorOrigem, Duration esperaMaxima) {
+        if (controller == null) {
+            throw new IllegalArgumentException("Controller não pode ser nulo");
+        }
+        if (trabalhadores < 1 || capacidadeFila < 1 || limitePorOrigem < 1) {
+            throw new IllegalArgumentException("Trabalhadores, fila e limite por origem devem ser maiores que zero");
+        }
+        if (limiteFila < 1 || limiteFila > capacidadeFila) {
+            throw new IllegalArgumentException("Limite da fila deve estar entre 1 e a capacidade da fila");
+        }
+        if (esperaMaxima == null || esperaMaxima.isNegative() || esperaMaxima.isZero()) {
+            throw new IllegalArgumentException("Espera máxima inválida");
+        }
+        this.controller = controller;
+        this.capacidadeFila = capacidadeFila;
+        this.limiteFila = limiteFila;
+        this.limitePorOrigem = limitePorOrigem;
+        this.esperaMaximaNs = esperaMaxima.toNanos();
+        this.executor = new ThreadPoolExecutor(trabalhadores, trabalhadores, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                Thread t = new Thread(r, "admissao-reservas");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Envia uma reserva para processamento, sem bloquear
+     * @param origem Identificação de quem envia (ex.: "site", "widget", "balcao")
+     * @param chave Chave de idempotência da requisição (repetições devolvem a mesma reserva)
+     * @return Future com o ID da reserva (ou com a exceção que a impediu)
+     * @throws SobrecargaException se a reserva for recusada na entrada
+     */
+    public CompletableFuture<Integer> enviar(String origem, String chave, Cliente cliente, int numeroMesa,
+                                             LocalDateTime horario, int pessoas) {
+        Semaphore vagas = emAndamentoPorOrigem.computeIfAbsent(origem, o -> new Semaphore(limitePorOrigem));
+        if (!vagas.tryAcquire()) {
+            recusadasOrigem.incrementAndGet();
+            throw new SobrecargaException("Muitas reservas em andamento para esta origem. Tente novamente.");
+        }
+
+        // Recusa pela profundidade da fila antes de chegar ao limite físico
+        if (executor.getQueue().size() >= limiteFila) {
+            vagas.release();
+            recusadasFila.incrementAndGet();
+            throw new SobrecargaException("Sistema ocupado. Tente novamente em instantes.");
+        }
+
+        CompletableFuture<Integer> resultado = new CompletableFuture<>();
+        long enfileirado = System.nanoTime();
+        try {
+            executor.execute(() -> processar(resultado, enfileirado, vagas, chave, cliente, numeroMesa, horario, pessoas));
+        } catch (RejectedExecutionException e) {
+            vagas.release();
+            recusadasFila.incrementAndGet();
+            throw new SobrecargaException("Sistema ocupado. Tente novamente em instantes.");
+        }
+        aceitas.incrementAndGet();
+        return resultado;
+    }
+
+    /**
+     * Envia uma reserva e aguarda o resultado
+     * @return ID da reserva
+     * @throws SQLException em caso de erro no banco de dados
+     * @throws SobrecargaException se a reserva for recusada por sobrecarga
+     */
+    public int fazerReserva(String origem, String chave, Cliente cliente, int numeroMesa,
+                            LocalDateTime horario, int pessoas) throws SQLException {
+        try {
+            return enviar(origem, chave, cliente, numeroMesa, horario, pessoas).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Reserva interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof SQLException) {
+                throw (SQLException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new SQLException(causa);
+        }
+    }
+
+    private void processar(CompletableFuture<Integer> resultado, long enfileirado, Semaphore vagas,
+                           String chave, Cliente cliente, int numeroMesa, LocalDateTime horario, int pessoas) {
+        try {
+            long espera = System.nanoTime() - enfileirado;
+            esperaNaFila.registrar(espera);
+            // Quem esperou demais provavelmente já desistiu: não vale gastar o lock de escrita
+            if (espera > esperaMaximaNs) {
+                recusadasEspera.incrementAndGet();
+                resultado.completeExceptionally(
+                    new SobrecargaException("Tempo de espera esgotado. Tente novamente."));
+                return;
+            }
+            // Cliente novo e reserva são gravados na mesma transação, protegida pela chave
+            int id = controller.fazerReserva(chave, cliente, numeroMesa, horario, pessoas);
+            concluidas.incrementAndGet();
+            resultado.complete(id);
+        } catch (Exception e) {
+            falhas.incrementAndGet();
+            resultado.completeExceptionally(e);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    /**
+     * Para de aceitar reservas; as que já estão na fila são processadas
+     */
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    public int getProfundidadeFila() { return executor.getQueue().size(); }
+    public long getAceitas() { return aceitas.get(); }
+    public long getConcluidas() { return concluidas.get(); }
+    public long getFalhas() { return falhas.get(); }
+
+    /**
+     * Total de recusas (fila cheia, limite da origem e espera esgotada)
+     */
+    public long getRecusadas() {
+        return recusadasFila.get() + recusadasOrigem.get() + recusadasEspera.get();
+    }
+
+    /**
+     * Fração dos pedidos recebidos que foi recusada por sobrecarga
+     */
+    public double getTaxaRecusa() {
+        long recusadasNaEntrada = recusadasFila.get() + recusadasOrigem.get();
+        long total = aceitas.get() + recusadasNaEntrada;
+        return total == 0 ? 0 : (double) getRecusadas() / total;
+    }
+
+    /**
+     * Percentil do tempo de espera na fila, em milissegundos (ex.: 0.99 para p99)
+     */
+    public double getEsperaPercentilMs(double percentil) {
+        return esperaNaFila.percentil(percentil) / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Admissão: fila %d/%d (recusa a partir de %d), %d aceitas, %d concluídas, %d falhas, %d recusadas " +
+                "(fila %d, origem %d, espera %d; taxa %.1f%%), espera p50 %.1f ms, p99 %.1f ms",
+            getProfundidadeFila(), capacidadeFila, limiteFila, getAceitas(), getConcluidas(), getFalhas(), getRecusadas(),
+            recusadasFila.get(), recusadasOrigem.get(), recusadasEspera.get(), getTaxaRecusa() * 100,
+            getEsperaPercentilMs(0.5), getEsperaPercentilMs(0.99));
+    }
+
+    /**
+     * Histograma de durações com faixas em potências de 2 (nanossegundos), sem locks
+     * O percentil é aproximado pelo limite superior da faixa
+     */
+    private static class Histograma {
+        private static final int FAIXAS = 64;
+        private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+        private final AtomicLong total = new AtomicLong();
+
+        void registrar(long nanos) {
+            int faixa = nanos <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(nanos);
+            contagens.incrementAndGet(Math.min(faixa, FAIXAS - 1));
+            total.incrementAndGet();
+        }
+
+        long percentil(double p) {
+            long n = total.get();
+            if (n == 0) {
+                return 0;
+            }
+            long alvo = (long) Math.ceil(p * n);
+            long acumulado = 0;
+            for (int i = 0; i < FAIXAS; i++) {
+                acumulado += contagens.get(i);
+                if (acumulado >= alvo) {
+                    return i == 0 ? 0 : 1L << Math.min(i, 62);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
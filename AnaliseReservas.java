@@ -0,0 +1,202 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Relatórios de ocupação, tamanho de grupos e receita sobre o histórico de reservas
+ * Trabalha apenas sobre um SnapshotReservas já carregado (nunca consulta o banco)
+ * e distribui cada relatório entre os núcleos com streams paralelos
+ */
+public class AnaliseReservas {
+    public static final int HORAS = 24;
+    public static final int DIAS_SEMANA = 7;
+
+    private final SnapshotReservas snapshot;
+    private final int mesas; // tamanho da dimensão de mesas (índice = número da mesa)
+
+    /**
+     * Cria o analisador sobre um snapshot carregado
+     * @param snapshot Histórico carregado com SnapshotReservas.carregar()
+     */
+    public AnaliseReservas(SnapshotReservas snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot não pode ser nulo");
+        }
+        this.snapshot = snapshot;
+        this.mesas = snapshot.getMaiorMesa() + 1;
+    }
+
+    /**
+     * Quantidade de reservas por mesa e hora do dia
+     * @return Matriz [mesa][hora]
+     */
+    public long[][] reservasPorMesaHora() {
+        long[] soma = somarParalelo(snapshot.getTotalReservas(), mesas * HORAS,
+            i -> snapshot.mesa(i) * HORAS + hora(snapshot.minuto(i)),
+            i -> 1);
+        return matriz(soma, mesas, HORAS);
+    }
+
+    /**
+     * Taxa de ocupação por mesa e hora: reservas naquela hora divididas pelos dias do histórico
+     * @return Matriz [mesa][hora] com valores entre 0 e 1 (ou mais, se houver várias reservas na mesma hora)
+     */
+    public double[][] ocupacaoPorMesaHora() {
+        long[][] reservas = reservasPorMesaHora();
+        int dias = Math.max(1, snapshot.getDiasCobertos());
+        double[][] taxa = new double[mesas][HORAS];
+        for (int m = 0; m < mesas; m++) {
+            for (int h = 0; h < HORAS; h++) {
+                taxa[m][h] = (double) reservas[m][h] / dias;
+            }
+        }
+        return taxa;
+    }
+
+    /**
+     * Lista as combinações de mesa e hora com ocupação abaixo do limite, da menos ocupada para a mais
+     * @param mesasExistentes Números das mesas a considerar
+     * @param horaAbertura Primeira hora de funcionamento (inclusive)
+     * @param horaFechamento Última hora de funcionamento (exclusive)
+     * @param limite Taxa de ocupação abaixo da qual a combinação é considerada subutilizada
+     * @return Combinações subutilizadas
+     */
+    public List<MesaHora> horariosSubutilizados(int[] mesasExistentes, int horaAbertura,
+                                                int horaFechamento, double limite) {
+        if (horaAbertura < 0 || horaFechamento > HORAS || horaAbertura >= horaFechamento) {
+            throw new IllegalArgumentException("Horário de funcionamento inválido");
+        }
+        double[][] taxa = ocupacaoPorMesaHora();
+        List<MesaHora> resultado = new ArrayList<>();
+        for (int numero : mesasExistentes) {
+            for (int h = horaAbertura; h < horaFechamento; h++) {
+                double t = numero < mesas ? taxa[numero][h] : 0;
+                if (t < limite) {
+                    resultado.add(new MesaHora(numero, h, t));
+                }
+            }
+        }
+        resultado.sort((a, b) -> Double.compare(a.getTaxa(), b.getTaxa()));
+        return resultado;
+    }
+
+    /**
+     * Média de pessoas por reserva, por dia da semana e mesa
+     * @return Matriz [dia da semana, 0 = segunda][mesa]; NaN onde não há reservas
+     */
+    public double[][] mediaPessoasPorDiaSemanaMesa() {
+        IntUnaryOperator chave = i -> diaSemana(snapshot.minuto(i)) * mesas + snapshot.mesa(i);
+        long[] pessoas = somarParalelo(snapshot.getTotalReservas(), DIAS_SEMANA * mesas, chave, snapshot::pessoas);
+        long[] reservas = somarParalelo(snapshot.getTotalReservas(), DIAS_SEMANA * mesas, chave, i -> 1);
+
+        double[][] media = new double[DIAS_SEMANA][mesas];
+        for (int d = 0; d < DIAS_SEMANA; d++) {
+            for (int m = 0; m < mesas; m++) {
+                long n = reservas[d * mesas + m];
+                media[d][m] = n == 0 ? Double.NaN : (double) pessoas[d * mesas + m] / n;
+            }
+        }
+        return media;
+    }
+
+    /**
+     * Receita dos pedidos (em centavos) por mesa e hora do dia
+     * @return Matriz [mesa][hora]
+     */
+    public long[][] receitaPorMesaHora() {
+        long[] soma = somarParalelo(snapshot.getTotalPedidos(), mesas * HORAS,
+            i -> snapshot.pedidoMesa(i) * HORAS + hora(snapshot.pedidoMinuto(i)),
+            snapshot::pedidoCentavos);
+        return matriz(soma, mesas, HORAS);
+    }
+
+    /**
+     * Receita média (em centavos) por reserva de cada mesa
+     * @return Array indexado pelo número da mesa; 0 onde não há reservas
+     */
+    public double[] receitaMediaPorReserva() {
+        long[] receita = somarParalelo(snapshot.getTotalPedidos(), mesas, snapshot::pedidoMesa,
+            snapshot::pedidoCentavos);
+        long[] reservas = somarParalelo(snapshot.getTotalReservas(), mesas, snapshot::mesa, i -> 1);
+        double[] media = new double[mesas];
+        for (int m = 0; m < mesas; m++) {
+            media[m] = reservas[m] == 0 ? 0 : (double) receita[m] / reservas[m];
+        }
+        return media;
+    }
+
+    /**
+     * Soma valores agrupados por chave, dividindo as linhas entre os núcleos
+     * Cada tarefa acumula em um array próprio e os arrays são somados ao final
+     * @param linhas Quantidade de linhas do snapshot
+     * @param chaves Quantidade de chaves possíveis
+     * @param chave Chave de cada linha
+     * @param valor Valor somado de cada linha
+     */
+    private static long[] somarParalelo(int linhas, int chaves, IntUnaryOperator chave, IntToLongFunction valor) {
+        return IntStream.range(0, linhas).parallel().collect(
+            () -> new long[chaves],
+            (acumulado, i) -> acumulado[chave.applyAsInt(i)] += valor.applyAsLong(i),
+            (a, b) -> {
+                for (int k = 0; k < chaves; k++) {
+                    a[k] += b[k];
+                }
+            });
+    }
+
+    private static long[][] matriz(long[] plano, int linhas, int colunas) {
+        long[][] m = new long[linhas][colunas];
+        for (int l = 0; l < linhas; l++) {
+            System.arraycopy(plano, l * colunas, m[l], 0, colunas);
+        }
+        return m;
+    }
+
+    private static int hora(int minuto) {
+        return Math.floorMod(minuto, SnapshotReservas.MINUTOS_POR_DIA) / 60;
+    }
+
+    /**
+     * Dia da semana com segunda = 0 (1970-01-01 foi uma quinta-feira)
+     */
+    private static int diaSemana(int minuto) {
+        int dia = Math.floorDiv(minuto, SnapshotReservas.MINUTOS_POR_DIA);
+        return Math.floorMod(dia + 3, DIAS_SEMANA);
+    }
+
+    /**
+     * Combinação de mesa e hora com sua taxa de ocupação
+     */
+    public static class MesaHora {
+        private final int mesa;
+        private final int hora;
+        private final double taxa;
+
+        MesaHora(int mesa, int hora, double taxa) {
+            this.mesa = mesa;
+            this.hora = hora;
+            this.taxa = taxa;
+        }
+
+        public int getMesa() { return mesa; }
+        public int getHora() { return hora; }
+        public double getTaxa() { return taxa; }
+
+        @Override
+        public String toString() {
+            return String.format("Mesa %d às %02dh: %.0f%% de ocupação", mesa, hora, taxa * 100);
+        }
+    }
+
+    /**
+     * Nome do dia da semana para os índices usados nos relatórios
+     */
+    public static DayOfWeek diaDaSemana(int indice) {
+        return DayOfWeek.of(indice + 1);
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Move reservas já concluídas há mais de um certo tempo da tabela reservas para o
+ * banco anexado "arquivo", mantendo a tabela quente pequena para as consultas do dia a dia
+ * A movimentação é feita em lotes, com transações curtas, para não segurar o lock
+ * de escrita enquanto novas reservas chegam
+ */
+public class ArquivamentoReservas {
+    // A mesma subconsulta (ordenada pelo índice de horário) escolhe o lote nas duas instruções
+    private static final String SQL_LOTE =
+        "SELECT id FROM main.reservas WHERE horario < ? ORDER BY horario, id LIMIT ?";
+    static final String SQL_COPIAR_LOTE =
+        "INSERT OR REPLACE INTO arquivo.reservas (id, cliente_id, mesa_numero, horario, pessoas, grupo) " +
+        "SELECT id, cliente_id, mesa_numero, horario, pessoas, grupo FROM main.reservas " +
+        "WHERE id IN (" + SQL_LOTE + ")";
+    // Só remove o que já está no arquivo, mesmo que o lote tenha mudado entre as duas transações
+    static final String SQL_REMOVER_LOTE = "DELETE FROM main.reservas WHERE id IN (" + SQL_LOTE + ") " +
+        "AND id IN (SELECT id FROM arquivo.reservas)";
+
+    private final Duration idadeMinima;
+    private final int tamanhoLote;
+
+    /**
+     * Cria o arquivamento
+     * @param idadeMinima Reservas com horário anterior a agora menos esta idade são arquivadas
+     * @param tamanhoLote Quantidade de reservas movidas por transação
+     */
+    public ArquivamentoReservas(Duration idadeMinima, int tamanhoLote) {
+        if (idadeMinima == null || idadeMinima.isNegative()) {
+            throw new IllegalArgumentException("Idade mínima inválida");
+        }
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser maior que zero");
+        }
+        this.idadeMinima = idadeMinima;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Arquiva todas as reservas mais antigas que a idade mínima
+     * @return Quantidade de reservas arquivadas
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public int executar() throws SQLException {
+        // Horários são gravados em ISO-8601, então a ordem textual é a cronológica
+        String limite = LocalDateTime.now().minus(idadeMinima).toString();
+        int total = 0;
+        int movidas;
+        do {
+            movidas = moverLote(limite);
+            total += movidas;
+        } while (movidas == tamanhoLote);
+        return total;
+    }
+
+    /**
+     * Copia um lote para o arquivo e depois o remove da tabela quente
+     * Em modo WAL, uma transação que envolve o banco anexado não é atômica entre os
+     * dois arquivos: uma queda entre os commits poderia gravar a remoção sem a cópia.
+     * Por isso a cópia é confirmada sozinha antes da remoção; se a queda vier entre as
+     * duas, a próxima execução copia de novo (INSERT OR REPLACE) e remove
+     * Entre um lote e outro a conexão fica livre para as reservas do dia
+     */
+    private int moverLote(String limite) throws SQLException {
+        Database db = Database.getInstance();
+        db.emTransacao(conn -> executarLote(conn, SQL_COPIAR_LOTE, limite));
+        return db.emTransacao(conn -> executarLote(conn, SQL_REMOVER_LOTE, limite));
+    }
+
+    private int executarLote(Connection conn, String sql, String limite) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, limite);
+            stmt.setInt(2, tamanhoLote);
+            return stmt.executeUpdate();
+        }
+    }
+}
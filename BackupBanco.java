@@ -0,0 +1,298 @@
+package model;
+
+import java.io.File;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import org.sqlite.SQLiteConnection;
+
+/**
+ * Backup online do banco de dados, feito sem fechar a aplicação
+ * Copia o banco em pequenos passos de páginas (API de backup do SQLite) em uma
+ * thread própria e com conexão própria, para que as reservas continuem durante a cópia
+ * Cada backup copia o banco principal e o banco de reservas arquivadas (schema "arquivo")
+ */
+public class BackupBanco {
+    private static final String PREFIXO = "restaurante-";
+    private static final String PREFIXO_ARQUIVO = "restaurante_arquivo-";
+    private static final String EXTENSAO = ".db";
+    private static final DateTimeFormatter FORMATO_NOME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Quantas vezes o backup pode recomeçar (banco alterado durante a cópia) antes de parar de pausar
+    private static final int MAX_REINICIOS = 3;
+    // Tentativas quando o banco está ocupado em um passo
+    private static final int MAX_TENTATIVAS_OCUPADO = 100;
+    private static final int ESPERA_OCUPADO_MS = 50;
+
+    private final File diretorio;
+    private final int paginasPorPasso;
+    private final int pausaEntrePassosMs;
+    private final int retencao;
+    private final ScheduledExecutorService executor;
+    private ScheduledFuture<?> agendamento;
+    private volatile ResultadoBackup ultimoResultado;
+
+    /**
+     * Cria o serviço de backup
+     * @param diretorio Diretório onde as cópias serão gravadas
+     * @param paginasPorPasso Quantidade de páginas copiadas por passo
+     * @param pausaEntrePassosMs Pausa entre passos, para dar vez aos escritores
+     * @param retencao Quantidade de cópias mantidas no diretório
+     */
+    public BackupBanco(File diretorio, int paginasPorPasso, int pausaEntrePassosMs, int retencao) {
+        if (paginasPorPasso < 1) {
+            throw new IllegalArgumentException("Páginas por passo deve ser maior que zero");
+        }
+        if (pausaEntrePassosMs < 0) {
+            throw new IllegalArgumentException("Pausa entre passos não pode ser negativa");
+        }
+        if (retencao < 1) {
+            throw new IllegalArgumentException("Retenção deve ser de pelo menos uma cópia");
+        }
+        this.diretorio = diretorio;
+        this.paginasPorPasso = paginasPorPasso;
+        this.pausaEntrePassosMs = pausaEntrePassosMs;
+        this.retencao = retencao;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "backup-banco");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /**
+     * Agenda backups periódicos
+     * @param intervalo Intervalo entre backups
+     * @param unidade Unidade do intervalo
+     */
+    public synchronized void agendar(long intervalo, TimeUnit unidade) {
+        cancelarAgendamento();
+        agendamento = executor.scheduleWithFixedDelay(() -> {
+            try {
+                executarBackup();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }, intervalo, intervalo, unidade);
+    }
+
+    /**
+     * Cancela os backups periódicos (o backup em andamento termina normalmente)
+     */
+    public synchronized void cancelarAgendamento() {
+        if (agendamento != null) {
+            agendamento.cancel(false);
+            agendamento = null;
+        }
+    }
+
+    /**
+     * Solicita um backup imediato, executado em segundo plano
+     * @return Future com o resultado do backup
+     */
+    public Future<ResultadoBackup> executarAgora() {
+        return executor.submit(this::executarBackup);
+    }
+
+    /**
+     * Retorna o resultado do último backup concluído, ou null se nenhum foi feito
+     */
+    public ResultadoBackup getUltimoResultado() {
+        return ultimoResultado;
+    }
+
+    /**
+     * Encerra o serviço de backup
+     */
+    public void encerrar() {
+        cancelarAgendamento();
+        executor.shutdown();
+    }
+
+    /**
+     * Executa um backup completo na thread atual
+     * O banco principal é copiado antes do arquivo: uma reserva arquivada entre as duas
+     * cópias aparece nas duas, em vez de ficar de fora de ambas
+     */
+    private ResultadoBackup executarBackup() throws SQLException {
+        if (!diretorio.exists() && !diretorio.mkdirs()) {
+            throw new SQLException("Não foi possível criar o diretório de backup: " + diretorio);
+        }
+
+        String momento = LocalDateTime.now().format(FORMATO_NOME);
+        File destino = new File(diretorio, PREFIXO + momento + EXTENSAO);
+        File destinoArquivo = new File(diretorio, PREFIXO_ARQUIVO + momento + EXTENSAO);
+
+        ResultadoBackup resultado;
+        try (Connection conn = Database.getInstance().abrirConexao()) {
+            ProgressoBackup progresso = new ProgressoBackup();
+            long inicio = System.nanoTime();
+            copiar(conn, "main", destino, progresso);
+            progresso.proximaCopia();
+            copiar(conn, "arquivo", destinoArquivo, progresso);
+            long duracaoNs = System.nanoTime() - inicio;
+
+            resultado = new ResultadoBackup(destino, destinoArquivo, destino.length() + destinoArquivo.length(),
+                progresso.passos, progresso.reinicios, duracaoNs, progresso.bloqueioTotalNs, progresso.maiorPassoNs);
+        } catch (SQLException e) {
+            // Sem o par completo, a cópia do banco principal também é descartada
+            destino.delete();
+            throw e;
+        }
+
+        aplicarRetencao(PREFIXO);
+        aplicarRetencao(PREFIXO_ARQUIVO);
+        ultimoResultado = resultado;
+        return resultado;
+    }
+
+    /**
+     * Copia um schema da conexão para o destino
+     * O arquivo é gravado com extensão temporária e renomeado apenas quando completo
+     */
+    private void copiar(Connection conn, String schema, File destino, ProgressoBackup progresso) throws SQLException {
+        File parcial = new File(destino.getParentFile(), destino.getName() + ".parcial");
+        parcial.delete();
+        try {
+            conn.unwrap(SQLiteConnection.class).getDatabase().backup(
+                schema, parcial.getAbsolutePath(), progresso,
+                ESPERA_OCUPADO_MS, MAX_TENTATIVAS_OCUPADO, paginasPorPasso);
+            if (!parcial.renameTo(destino)) {
+                throw new SQLException("Não foi possível finalizar o arquivo de backup: " + destino);
+            }
+        } catch (SQLException e) {
+            parcial.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Remove as cópias mais antigas com o prefixo, mantendo apenas as mais recentes
+     */
+    private void aplicarRetencao(String prefixo) {
+        File[] copias = diretorio.listFiles((dir, nome) -> nome.startsWith(prefixo) && nome.endsWith(EXTENSAO));
+        if (copias == null || copias.length <= retencao) {
+            return;
+        }
+        // O nome contém a data no formato yyyyMMdd-HHmmss, então a ordem alfabética é cronológica
+        Arrays.sort(copias);
+        for (int i = 0; i < copias.length - retencao; i++) {
+            if (!copias[i].delete()) {
+                System.err.println("Não foi possível remover backup antigo: " + copias[i]);
+            }
+        }
+    }
+
+    /**
+     * Acompanha os passos do backup, medindo quanto tempo cada passo segurou o banco
+     * e pausando entre passos para que os escritores possam avançar
+     */
+    private class ProgressoBackup implements org.sqlite.core.DB.ProgressObserver {
+        private long fimUltimoPasso = System.nanoTime();
+        private int restanteAnterior = Integer.MAX_VALUE;
+        private int passos;
+        private int reinicios;
+        private long bloqueioTotalNs;
+        private long maiorPassoNs;
+
+        /**
+         * Prepara para a cópia do próximo schema: o total de páginas recomeça sem ser um reinício
+         */
+        void proximaCopia() {
+            restanteAnterior = Integer.MAX_VALUE;
+            fimUltimoPasso = System.nanoTime();
+        }
+
+        @Override
+        public void progress(int restante, int totalPaginas) {
+            long agora = System.nanoTime();
+            long passo = agora - fimUltimoPasso;
+            passos++;
+            bloqueioTotalNs += passo;
+            maiorPassoNs = Math.max(maiorPassoNs, passo);
+
+            // Se o número de páginas restantes aumentou, o banco foi alterado e o SQLite recomeçou a cópia
+            if (restante > restanteAnterior) {
+                reinicios++;
+            }
+            restanteAnterior = restante;
+
+            // Com muitos reinícios as pausas só aumentam a chance de novas alterações,
+            // então o restante da cópia segue sem pausas
+            if (restante > 0 && pausaEntrePassosMs > 0 && reinicios <= MAX_REINICIOS) {
+                try {
+                    Thread.sleep(pausaEntrePassosMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            fimUltimoPasso = System.nanoTime();
+        }
+    }
+
+    /**
+     * Resultado de um backup concluído
+     */
+    public static class ResultadoBackup {
+        private final File arquivo;
+        private final File arquivoHistorico;
+        private final long bytes;
+        private final int passos;
+        private final int reinicios;
+        private final long duracaoNs;
+        private final long bloqueioTotalNs;
+        private final long maiorBloqueioNs;
+
+        ResultadoBackup(File arquivo, File arquivoHistorico, long bytes, int passos, int reinicios,
+                        long duracaoNs, long bloqueioTotalNs, long maiorBloqueioNs) {
+            this.arquivo = arquivo;
+            this.arquivoHistorico = arquivoHistorico;
+            this.bytes = bytes;
+            this.passos = passos;
+            this.reinicios = reinicios;
+            this.duracaoNs = duracaoNs;
+            this.bloqueioTotalNs = bloqueioTotalNs;
+            this.maiorBloqueioNs = maiorBloqueioNs;
+        }
+
+        public File getArquivo() { return arquivo; }
+
+        /**
+         * Cópia do banco de reservas arquivadas, feita junto com a do banco principal
+         */
+        public File getArquivoHistorico() { return arquivoHistorico; }
+        public long getBytes() { return bytes; }
+        public int getPassos() { return passos; }
+        public int getReinicios() { return reinicios; }
+        public long getDuracaoMs() { return TimeUnit.NANOSECONDS.toMillis(duracaoNs); }
+
+        /**
+         * Vazão do backup em MB/s
+         */
+        public double getVazaoMBps() {
+            return duracaoNs == 0 ? 0 : (bytes / (1024.0 * 1024.0)) / (duracaoNs / 1e9);
+        }
+
+        /**
+         * Tempo total (ms) em que o backup segurou o banco durante os passos
+         * É o limite superior do tempo em que escritores podem ter ficado esperando
+         */
+        public long getBloqueioTotalMs() { return TimeUnit.NANOSECONDS.toMillis(bloqueioTotalNs); }
+
+        /**
+         * Maior tempo (ms) de um único passo, ou seja, a maior espera possível de um escritor
+         */
+        public long getMaiorBloqueioMs() { return TimeUnit.NANOSECONDS.toMillis(maiorBloqueioNs); }
+
+        @Override
+        public String toString() {
+            return String.format("Backup %s + %s: %d bytes em %d ms (%.2f MB/s), %d passos, %d reinícios, " +
+                    "bloqueio total %d ms, maior bloqueio %d ms",
+                arquivo.getName(), arquivoHistorico.getName(), bytes, getDuracaoMs(), getVazaoMBps(), passos, reinicios,
+                getBloqueioTotalMs(), getMaiorBloqueioMs());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Deduplicação de requisições por chave de idempotência
+ * O resultado de cada operação concluída fica em um cache limitado em memória (com
+ * validade) e na tabela requisicoes_idempotentes, gravada na mesma transação da operação.
+ * Uma repetição da mesma chave (duplo clique, nova tentativa do site) devolve o resultado
+ * original sem passar de novo pelo caminho de escrita. Junto com o resultado fica um hash
+ * dos dados da requisição: reutilizar a chave com outros dados (outra mesa, outro horário)
+ * é recusado em vez de devolver o resultado antigo. Operações que falham não são
+ * guardadas, então podem ser tentadas novamente
+ */
+public class CacheIdempotencia {
+
+    /**
+     * Operação protegida pela chave
+     * Recebe a conexão da transação (null quando o armazenamento ativo é em memória)
+     * e retorna o resultado que será devolvido nas repetições
+     */
+    public interface Operacao {
+        String executar(Connection conn) throws SQLException;
+    }
+
+    static final String SQL_BUSCAR =
+        "SELECT operacao, hash, resultado, criado_em FROM requisicoes_idempotentes WHERE chave = ? AND criado_em >= ?";
+    static final String SQL_GRAVAR =
+        "INSERT OR REPLACE INTO requisicoes_idempotentes (chave, operacao, hash, resultado, criado_em) VALUES (?, ?, ?, ?, ?)";
+    static final String SQL_LIMPAR = "DELETE FROM requisicoes_idempotentes WHERE criado_em < ?";
+
+    private final long validadeMs;
+    private final Map<String, Entrada> recentes;
+    private final ConcurrentHashMap<String, CompletableFuture<Entrada>> emAndamento = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o cache
+     * @param capacidade Quantidade máxima de chaves mantidas em memória (as menos usadas saem primeiro)
+     * @param validade Tempo durante o qual uma repetição devolve o resultado original
+     */
+    public CacheIdempotencia(int capacidade, Duration validade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade deve ser maior que zero");
+        }
+        if (validade == null || validade.isNegative() || validade.isZero()) {
+            throw new IllegalArgumentException("Validade inválida");
+        }
+        this.validadeMs = validade.toMillis();
+        this.recentes = new LinkedHashMap<String, Entrada>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                return size() > capacidade;
+            }
+        };
+    }
+
+    /**
+     * Executa a operação uma única vez por chave
+     * @param chave Chave de idempotência enviada por quem pede
+     * @param operacao Nome da operação (a mesma chave não pode ser usada em outra operação)
+     * @param requisicao Dados da requisição (ex.: mesa, horário e pessoas); a mesma chave
+     *                   não pode ser reutilizada com dados diferentes
+     * @param acao Operação a executar
+     * @return Resultado da operação, original ou repetido
+     * @throws SQLException em caso de erro no banco de dados
+     * @throws IllegalArgumentException se a chave já foi usada em outra operação ou com outros dados
+     */
+    public String executar(String chave, String operacao, String requisicao, Operacao acao) throws SQLException {
+        if (chave == null || chave.trim().isEmpty()) {
+            throw new IllegalArgumentException("Chave de idempotência não pode ser vazia");
+        }
+        String hash = hash(operacao, requisicao);
+
+        Entrada entrada = buscarRecente(chave);
+        if (entrada != null) {
+            return entrada.resultadoPara(operacao, hash);
+        }
+
+        // Repetições simultâneas da mesma chave aguardam a primeira em vez de executar de novo
+        CompletableFuture<Entrada> minha = new CompletableFuture<>();
+        CompletableFuture<Entrada> outra = emAndamento.putIfAbsent(chave, minha);
+        if (outra != null) {
+            return aguardar(outra).resultadoPara(operacao, hash);
+        }
+
+        try {
+            entrada = buscarPersistida(chave);
+            if (entrada == null) {
+                entrada = executarEGravar(chave, operacao, hash, acao);
+            }
+            synchronized (recentes) {
+                recentes.put(chave, entrada);
+            }
+            minha.complete(entrada);
+            return entrada.resultadoPara(operacao, hash);
+        } catch (SQLException | RuntimeException e) {
+            minha.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, minha);
+        }
+    }
+
+    /**
+     * Remove do banco as chaves que já passaram da validade
+     * @return Quantidade de chaves removidas
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public int limparExpiradas() throws SQLException {
+        if (Repositorios.isMemoria()) {
+            return 0;
+        }
+        Connection conn = Database.getInstance().getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_LIMPAR)) {
+            stmt.setLong(1, System.currentTimeMillis() - validadeMs);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private Entrada buscarRecente(String chave) {
+        synchronized (recentes) {
+            Entrada entrada = recentes.get(chave);
+            if (entrada != null && entrada.expirada(validadeMs)) {
+                recentes.remove(chave);
+                return null;
+            }
+            return entrada;
+        }
+    }
+
+    private Entrada buscarPersistida(String chave) throws SQLException {
+        if (Repositorios.isMemoria()) {
+            return null;
+        }
+        Connection conn = Database.getInstance().getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR)) {
+            stmt.setString(1, chave);
+            stmt.setLong(2, System.currentTimeMillis() - validadeMs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    // A validade continua contando de quando a operação foi feita, não de agora
+                    return new Entrada(rs.getString("operacao"), rs.getString("hash"),
+                        rs.getString("resultado"), rs.getLong("criado_em"));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Executa a operação e grava o resultado na mesma transação
+     */
+    private Entrada executarEGravar(String chave, String operacao, String hash, Operacao acao) throws SQLException {
+        if (Repositorios.isMemoria()) {
+            return new Entrada(operacao, hash, acao.executar(null), System.currentTimeMillis());
+        }
+        return Database.getInstance().emTransacao(conn -> {
+            String resultado = acao.executar(conn);
+            long agora = System.currentTimeMillis();
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_GRAVAR)) {
+                stmt.setString(1, chave);
+                stmt.setString(2, operacao);
+                stmt.setString(3, hash);
+                stmt.setString(4, resultado);
+                stmt.setLong(5, agora);
+                stmt.executeUpdate();
+            }
+            return new Entrada(operacao, hash, resultado, agora);
+        });
+    }
+
+    /**
+     * Hash SHA-256 (em hexadecimal) da operação e dos dados da requisição
+     */
+    private static String hash(String operacao, String requisicao) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest((operacao + "\n" + requisicao).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM tem SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Entrada aguardar(CompletableFuture<Entrada> futuro) throws SQLException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Requisição interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof SQLException) {
+                throw (SQLException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new SQLException(causa);
+        }
+    }
+
+    /**
+     * Resultado guardado de uma chave
+     */
+    private static class Entrada {
+        private final String operacao;
+        private final String hash;
+        private final String resultado;
+        private final long criadaEm;
+
+        Entrada(String operacao, String hash, String resultado, long criadaEm) {
+            this.operacao = operacao;
+            this.hash = hash;
+            this.resultado = resultado;
+            this.criadaEm = criadaEm;
+        }
+
+        boolean expirada(long validadeMs) {
+            return System.currentTimeMillis() - criadaEm > validadeMs;
+        }
+
+        String resultadoPara(String operacaoPedida, String hashPedido) {
+            if (!operacao.equals(operacaoPedida)) {
+                throw new IllegalArgumentException("Chave de idempotência já usada em outra operação");
+            }
+            // Chaves gravadas antes da coluna hash não têm o que comparar
+            if (!hash.isEmpty() && !hash.equals(hashPedido)) {
+                throw new IllegalArgumentException("Chave de idempotência já usada com outros dados");
+            }
+            return resultado;
+        }
+    }
+}
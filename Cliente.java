@@ -1,10 +1,11 @@
 package model;
 
-import java.sql.*;
+import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Classe que representa um cliente do restaurante
- * Contém métodos para persistência no banco de dados
+ * A persistência é feita pelo repositório ativo (ver Repositorios)
  */
 public class Cliente {
     private int id;
@@ -40,25 +41,13 @@ public class Cliente {
     }
 
     /**
-     * Salva o cliente no banco de dados
+     * Salva o cliente no armazenamento ativo (banco de dados ou memória)
+     * e o inclui no índice de sugestões
      * @throws SQLException em caso de erro no banco de dados
      */
     public void salvar() throws SQLException {
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "INSERT INTO clientes (nome, telefone) VALUES (?, ?)";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, nome);
-            stmt.setString(2, telefone);
-            stmt.executeUpdate();
-            
-            // Obter o ID gerado
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    this.id = rs.getInt(1);
-                }
-            }
-        }
+        Repositorios.clientes().salvar(this);
+        IndiceClientes.getInstance().adicionar(this);
     }
     
     /**
@@ -68,22 +57,7 @@ public class Cliente {
      * @throws SQLException em caso de erro no banco de dados
      */
     public static Cliente buscarPorId(int id) throws SQLException {
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "SELECT * FROM clientes WHERE id = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Cliente c = new Cliente();
-                    c.setId(rs.getInt("id"));
-                    c.setNome(rs.getString("nome"));
-                    c.setTelefone(rs.getString("telefone"));
-                    return c;
-                }
-            }
-        }
-        return null;
+        return Repositorios.clientes().buscarPorId(id);
     }
     
     /**
@@ -92,20 +66,6 @@ public class Cliente {
      * @throws SQLException em caso de erro no banco de dados
      */
     public static List<Cliente> listarTodos() throws SQLException {
-        List<Cliente> clientes = new ArrayList<>();
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "SELECT * FROM clientes ORDER BY nome";
-        
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Cliente c = new Cliente();
-                c.setId(rs.getInt("id"));
-                c.setNome(rs.getString("nome"));
-                c.setTelefone(rs.getString("telefone"));
-                clientes.add(c);
-            }
-        }
-        return clientes;
+        return Repositorios.clientes().listarTodos();
     }
 }
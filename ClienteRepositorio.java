@@ -0,0 +1,31 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Acesso ao armazenamento de clientes
+ * Implementado em SQLite (SQLiteClienteRepositorio) e em memória (MemoriaClienteRepositorio)
+ */
+public interface ClienteRepositorio {
+
+    /**
+     * Salva um novo cliente e atribui o ID gerado
+     * @param cliente Cliente a ser salvo
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    void salvar(Cliente cliente) throws SQLException;
+
+    /**
+     * Busca um cliente pelo ID
+     * @return Cliente encontrado ou null se não existir
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    Cliente buscarPorId(int id) throws SQLException;
+
+    /**
+     * Lista todos os clientes ordenados pelo nome
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Cliente> listarTodos() throws SQLException;
+}
@@ -0,0 +1,337 @@
+package model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Verificação de conformidade dos repositórios: o mesmo roteiro de operações é
+ * executado contra a implementação em memória e contra a SQLite, e as duas devem
+ * se comportar igual. Execute o main em uma JVM própria; o SQLite usa um banco
+ * temporário (-Drestaurante.banco), nunca o restaurante.db
+ */
+public class ConformidadeRepositorios {
+    private final String implementacao;
+    private final List<String> falhas;
+
+    // Dados compartilhados entre as etapas do roteiro
+    private final LocalDateTime base = LocalDateTime.now().plusDays(10)
+        .withHour(20).withMinute(0).withSecond(0).withNano(0);
+    private Cliente ana;
+    private Cliente bruno;
+
+    private ConformidadeRepositorios(String implementacao, List<String> falhas) {
+        this.implementacao = implementacao;
+        this.falhas = falhas;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> falhas = verificarImplementacoes();
+        if (falhas.isEmpty()) {
+            System.out.println("Repositórios em memória e SQLite se comportam igual");
+            return;
+        }
+        System.err.println("Divergências nos repositórios:");
+        falhas.forEach(f -> System.err.println("  " + f));
+        throw new IllegalStateException(falhas.size() + " verificações de conformidade falharam");
+    }
+
+    /**
+     * Executa o roteiro nas duas implementações
+     * @return Verificações que falharam, prefixadas pela implementação (vazia se tudo conforme)
+     * @throws Exception em caso de erro no banco de dados ou no diretório temporário
+     */
+    public static List<String> verificarImplementacoes() throws Exception {
+        File diretorio = Files.createTempDirectory("conformidade").toFile();
+        File principal = new File(diretorio, "conformidade.db");
+        // Precisa valer antes da primeira chamada a Database.getInstance()
+        System.setProperty("restaurante.banco", principal.getAbsolutePath());
+        if (!principal.getAbsolutePath().equals(Database.getInstance().getArquivo())) {
+            diretorio.delete();
+            throw new IllegalStateException("Banco já aberto em " + Database.getInstance().getArquivo() +
+                "; execute a verificação em uma JVM própria");
+        }
+
+        List<String> falhas = new ArrayList<>();
+        try {
+            Repositorios.usarMemoria();
+            new ConformidadeRepositorios("memória", falhas).executar();
+
+            Repositorios.usarSQLite();
+            new ConformidadeRepositorios("SQLite", falhas).executar();
+        } finally {
+            Database.getInstance().close();
+            File[] arquivos = diretorio.listFiles();
+            if (arquivos != null) {
+                for (File f : arquivos) {
+                    f.delete();
+                }
+            }
+            diretorio.delete();
+        }
+        return falhas;
+    }
+
+    private void executar() throws SQLException {
+        verificarClientes();
+        verificarMesas();
+        verificarReservas();
+        verificarGrupos();
+        verificarNotificacoes();
+    }
+
+    private void verificarClientes() throws SQLException {
+        ClienteRepositorio clientes = Repositorios.clientes();
+
+        ana = new Cliente("Ana Souza", "11987654321");
+        clientes.salvar(ana);
+        verificar(ana.getId() > 0, "salvar cliente atribui ID");
+
+        Cliente lido = clientes.buscarPorId(ana.getId());
+        verificar(lido != null && "Ana Souza".equals(lido.getNome()) && "11987654321".equals(lido.getTelefone()),
+            "buscarPorId devolve o cliente salvo");
+        if (lido != null) {
+            lido.setNome("Alterado");
+            verificar("Ana Souza".equals(clientes.buscarPorId(ana.getId()).getNome()),
+                "alterar o cliente devolvido não altera o armazenado");
+        }
+        verificar(clientes.buscarPorId(ana.getId() + 1000) == null, "buscarPorId de cliente inexistente devolve null");
+
+        bruno = new Cliente("Bruno Lima", "11912345678");
+        clientes.salvar(bruno);
+        verificar(bruno.getId() > 0 && bruno.getId() != ana.getId(), "cada cliente salvo recebe um ID próprio");
+
+        List<String> nomes = new ArrayList<>();
+        for (Cliente c : clientes.listarTodos()) {
+            nomes.add(c.getNome());
+        }
+        verificar(nomes.equals(Arrays.asList("Ana Souza", "Bruno Lima")), "listarTodos ordena por nome: " + nomes);
+    }
+
+    private void verificarMesas() throws SQLException {
+        MesaRepositorio mesas = Repositorios.mesas();
+
+        for (int i = 1; i <= 4; i++) {
+            mesas.salvar(new Mesa(i, i == 4 ? 6 : 4));
+        }
+        Mesa lida = mesas.buscarPorNumero(4);
+        verificar(lida != null && lida.getCapacidade() == 6 && !lida.isOcupada(), "buscarPorNumero devolve a mesa salva");
+        verificar(mesas.buscarPorNumero(7) == null, "buscarPorNumero de mesa inexistente devolve null");
+
+        Mesa ocupada = new Mesa(3, 4);
+        ocupada.setOcupada(true);
+        mesas.salvar(ocupada);
+        verificar(numerosMesas(mesas.listarTodas()).equals(Arrays.asList(1, 2, 3, 4)), "listarTodas ordena por número");
+        verificar(numerosMesas(mesas.listarDisponiveis()).equals(Arrays.asList(1, 2, 4)),
+            "listarDisponiveis omite mesas ocupadas");
+
+        ocupada.setOcupada(false);
+        mesas.salvar(ocupada);
+        verificar(mesas.listarDisponiveis().size() == 4, "salvar uma mesa existente substitui os dados dela");
+
+        mesas.salvarAdjacencia(2, 1);
+        mesas.salvarAdjacencia(1, 2);
+        mesas.salvarAdjacencia(2, 3);
+        Set<String> pares = new HashSet<>();
+        for (int[] par : mesas.listarAdjacencias()) {
+            pares.add(par[0] + "-" + par[1]);
+        }
+        verificar(pares.equals(new HashSet<>(Arrays.asList("1-2", "2-3"))),
+            "adjacências ficam com a menor mesa primeiro e sem repetição: " + pares);
+        try {
+            mesas.salvarAdjacencia(1, 1);
+            verificar(false, "adjacência de uma mesa com ela mesma é recusada");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+    }
+
+    private void verificarReservas() throws SQLException {
+        ReservaRepositorio reservas = Repositorios.reservas();
+        MesaRepositorio mesas = Repositorios.mesas();
+        LocalDateTime depois = base.plusHours(2);
+
+        Reserva primeira = new Reserva(ana, mesas.buscarPorNumero(1), base);
+        primeira.setPessoas(2);
+        reservas.salvar(primeira);
+        Reserva segunda = new Reserva(bruno, mesas.buscarPorNumero(2), depois);
+        reservas.salvar(segunda);
+        verificar(primeira.getId() > 0 && segunda.getId() > primeira.getId(), "salvar reserva atribui IDs crescentes");
+
+        verificar(reservas.existeReserva(1, base) && !reservas.existeReserva(1, depois) && !reservas.existeReserva(2, base),
+            "existeReserva considera mesa e horário");
+        verificar(reservas.mesasReservadasNoHorario(base).equals(Arrays.asList(1)),
+            "mesasReservadasNoHorario devolve só as mesas do horário");
+
+        List<Reserva> todas = reservas.listarTodas();
+        verificar(idsReservas(todas).equals(Arrays.asList(primeira.getId(), segunda.getId())),
+            "listarTodas ordena pelo horário");
+        if (!todas.isEmpty()) {
+            Reserva lida = todas.get(0);
+            verificar("Ana Souza".equals(lida.getCliente().getNome()) && lida.getMesa().getNumero() == 1
+                    && lida.getPessoas() == 2 && base.equals(lida.getHorario()),
+                "listarTodas traz cliente, mesa, pessoas e horário");
+        }
+        verificar(idsReservas(reservas.buscarPorNomeCliente("souza")).equals(Arrays.asList(primeira.getId())),
+            "buscarPorNomeCliente acha trechos sem diferenciar maiúsculas");
+
+        List<LinhaReserva> linhas = reservas.listarLinhas();
+        verificar(idsLinhas(linhas).equals(idsReservas(todas)), "listarLinhas traz as mesmas reservas de listarTodas");
+        if (!linhas.isEmpty()) {
+            LinhaReserva linha = linhas.get(0);
+            verificar("Ana Souza".equals(linha.getClienteNome()) && linha.getMesaNumero() == 1
+                    && linha.getPessoas() == 2, "listarLinhas traz cliente, mesa e pessoas");
+        }
+        verificar(idsLinhas(reservas.buscarLinhasPorNomeCliente("LIMA")).equals(Arrays.asList(segunda.getId())),
+            "buscarLinhasPorNomeCliente acha trechos sem diferenciar maiúsculas");
+        verificar(idsReservas(reservas.listarHistorico()).containsAll(idsReservas(todas)),
+            "listarHistorico inclui as reservas ativas");
+
+        verificar(!reservas.cancelar(segunda.getId() + 1000), "cancelar reserva inexistente devolve false");
+        verificar(reservas.cancelarDoDia(base.toLocalDate()) == 2, "cancelarDoDia cancela as reservas do dia");
+        verificar(reservas.listarTodas().isEmpty(), "nada resta depois de cancelar o dia");
+    }
+
+    private void verificarGrupos() throws SQLException {
+        ReservaRepositorio reservas = Repositorios.reservas();
+        MesaRepositorio mesas = Repositorios.mesas();
+        LocalDateTime horario = base.plusDays(1);
+
+        List<Reserva> grupo = Arrays.asList(
+            new Reserva(bruno, mesas.buscarPorNumero(3), horario),
+            new Reserva(bruno, mesas.buscarPorNumero(4), horario));
+        reservas.salvarGrupo(grupo);
+        verificar(grupo.get(0).getId() > 0 && grupo.get(1).getId() > grupo.get(0).getId(),
+            "salvarGrupo atribui um ID a cada reserva");
+        verificar(mesas.buscarPorNumero(3).isOcupada() && mesas.buscarPorNumero(4).isOcupada(),
+            "salvarGrupo ocupa as mesas");
+        verificar(reservas.mesasReservadasNoHorario(horario).equals(Arrays.asList(3, 4)),
+            "mesasReservadasNoHorario devolve as mesas do grupo");
+
+        verificar(reservas.cancelar(grupo.get(1).getId()), "cancelar uma reserva do grupo devolve true");
+        verificar(!reservas.existeReserva(3, horario) && !reservas.existeReserva(4, horario),
+            "cancelar uma reserva do grupo cancela o grupo todo");
+        verificar(!mesas.buscarPorNumero(3).isOcupada() && !mesas.buscarPorNumero(4).isOcupada(),
+            "cancelar o grupo libera as mesas");
+        verificar(!reservas.cancelar(grupo.get(0).getId()), "reserva de grupo já cancelado não é cancelada de novo");
+    }
+
+    private void verificarNotificacoes() throws SQLException {
+        NotificacaoRepositorio notificacoes = Repositorios.notificacoes();
+        ReservaRepositorio reservas = Repositorios.reservas();
+        LocalDateTime agora = LocalDateTime.now().withNano(0);
+
+        Reserva reserva = new Reserva(ana, Repositorios.mesas().buscarPorNumero(1), base);
+        reservas.salvar(reserva);
+        Notificacao confirmacao = daReserva(reserva, new Notificacao(reserva.getId(), Notificacao.Tipo.CONFIRMACAO,
+            ana.getTelefone(), "Confirmada", agora.minusMinutes(1)));
+        Notificacao lembrete = daReserva(reserva, new Notificacao(reserva.getId(), Notificacao.Tipo.LEMBRETE,
+            ana.getTelefone(), "Lembrete", agora.minusMinutes(2)));
+        Notificacao futura = daReserva(reserva, new Notificacao(reserva.getId(), Notificacao.Tipo.LEMBRETE,
+            ana.getTelefone(), "Futura", agora.plusDays(1)));
+        notificacoes.registrar(confirmacao);
+        notificacoes.registrar(lembrete);
+        notificacoes.registrar(futura);
+        verificar(confirmacao.getId() > 0 && lembrete.getId() > 0 && futura.getId() > 0,
+            "registrar notificação atribui ID");
+
+        List<Notificacao> prontas = notificacoes.buscarProntas(agora, 10);
+        verificar(idsNotificacoes(prontas).equals(Arrays.asList(lembrete.getId(), confirmacao.getId())),
+            "buscarProntas traz só as pendentes já vencidas, pela ordem de envio");
+        verificar(prontas.stream().allMatch(Notificacao::isReservaAtiva), "notificação de reserva existente está ativa");
+        verificar(notificacoes.buscarProntas(agora, 1).size() == 1, "buscarProntas respeita o limite");
+
+        confirmacao.setStatus(Notificacao.Status.ENVIADA);
+        lembrete.setStatus(Notificacao.Status.FALHA);
+        lembrete.setTentativas(3);
+        lembrete.setUltimoErro("Telefone inválido");
+        notificacoes.atualizar(Arrays.asList(confirmacao, lembrete));
+        verificar(notificacoes.buscarProntas(agora, 10).isEmpty(), "notificações enviadas ou com falha saem da fila");
+
+        List<Notificacao> comFalha = notificacoes.listarFalhas();
+        verificar(idsNotificacoes(comFalha).equals(Arrays.asList(lembrete.getId()))
+                && comFalha.get(0).getTentativas() == 3 && "Telefone inválido".equals(comFalha.get(0).getUltimoErro()),
+            "listarFalhas traz as notificações com falha e o erro");
+
+        // Cancelamento: descarta as pendentes da reserva, inclusive as gravadas sem o ID
+        // (reserva no diário de escrita); as antigas, sem mesa e horário, ficam inativas
+        Notificacao pendente = daReserva(reserva, new Notificacao(reserva.getId(), Notificacao.Tipo.CONFIRMACAO,
+            ana.getTelefone(), "Pendente", agora.minusMinutes(3)));
+        Notificacao semId = daReserva(reserva, new Notificacao(0, Notificacao.Tipo.CONFIRMACAO,
+            ana.getTelefone(), "Sem ID", agora.minusMinutes(2)));
+        Notificacao antiga = new Notificacao(reserva.getId(), Notificacao.Tipo.LEMBRETE,
+            ana.getTelefone(), "Antiga", agora.minusMinutes(1));
+        notificacoes.registrar(pendente);
+        notificacoes.registrar(semId);
+        notificacoes.registrar(antiga);
+        prontas = notificacoes.buscarProntas(agora, 10);
+        verificar(idsNotificacoes(prontas).equals(Arrays.asList(pendente.getId(), semId.getId(), antiga.getId()))
+                && prontas.get(1).getMesaNumero() == 1 && base.equals(prontas.get(1).getHorarioReserva()),
+            "notificação guarda mesa e horário da reserva");
+
+        reservas.cancelar(reserva.getId());
+        prontas = notificacoes.buscarProntas(agora, 10);
+        verificar(idsNotificacoes(prontas).equals(Arrays.asList(antiga.getId())) && !prontas.get(0).isReservaAtiva(),
+            "cancelar a reserva descarta as notificações pendentes dela");
+        antiga.setStatus(Notificacao.Status.DESCARTADA);
+        notificacoes.atualizar(Arrays.asList(antiga));
+
+        Reserva doDia = new Reserva(ana, Repositorios.mesas().buscarPorNumero(2), base);
+        reservas.salvar(doDia);
+        notificacoes.registrar(daReserva(doDia, new Notificacao(doDia.getId(), Notificacao.Tipo.LEMBRETE,
+            ana.getTelefone(), "Do dia", agora.minusMinutes(1))));
+        reservas.cancelarDoDia(base.toLocalDate());
+        verificar(notificacoes.buscarProntas(agora, 10).isEmpty(),
+            "cancelar as reservas do dia descarta as notificações pendentes delas");
+    }
+
+    private static Notificacao daReserva(Reserva reserva, Notificacao notificacao) {
+        notificacao.setMesaNumero(reserva.getMesa().getNumero());
+        notificacao.setHorarioReserva(reserva.getHorario());
+        return notificacao;
+    }
+
+    private void verificar(boolean condicao, String descricao) {
+        if (!condicao) {
+            falhas.add("[" + implementacao + "] " + descricao);
+        }
+    }
+
+    private static List<Integer> numerosMesas(List<Mesa> mesas) {
+        List<Integer> numeros = new ArrayList<>();
+        for (Mesa m : mesas) {
+            numeros.add(m.getNumero());
+        }
+        return numeros;
+    }
+
+    private static List<Integer> idsReservas(List<Reserva> reservas) {
+        List<Integer> ids = new ArrayList<>();
+        for (Reserva r : reservas) {
+            ids.add(r.getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> idsLinhas(List<LinhaReserva> linhas) {
+        List<Integer> ids = new ArrayList<>();
+        for (LinhaReserva l : linhas) {
+            ids.add(l.getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> idsNotificacoes(List<Notificacao> notificacoes) {
+        List<Integer> ids = new ArrayList<>();
+        for (Notificacao n : notificacoes) {
+            ids.add(n.getId());
+        }
+        return ids;
+    }
+}
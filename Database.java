@@ -1,25 +1,50 @@
 package model;
 
 import java.sql.*;
+import java.util.Properties;
 
 /**
  * Classe singleton para gerenciar a conexão com o banco de dados SQLite
  * Responsável por criar as tabelas na primeira execução
  */
 public class Database {
-    private static final String URL = "jdbc:sqlite:restaurante.db";
+    // Outro arquivo pode ser usado com -Drestaurante.banco=<arquivo> (ex.: verificação de conformidade)
+    private static final String ARQUIVO = System.getProperty("restaurante.banco", "restaurante.db");
+    private static final String URL = "jdbc:sqlite:" + ARQUIVO;
+    // Banco anexado (schema "arquivo") com as reservas antigas, fora da tabela quente
+    private static final String ARQUIVO_HISTORICO = ARQUIVO.replaceFirst("(\\.db)?$", "_arquivo.db");
+    // Tempo máximo (ms) que uma conexão espera pelo lock de escrita antes de falhar
+    private static final int BUSY_TIMEOUT_MS = 5000;
     private static Database instance;
     private Connection connection;
+    // Transação aberta por emTransacao na conexão principal (protegida pelo lock da instância)
+    private boolean transacaoAberta;
+    // Diário de escrita opcional; quando ativo, gravações de reservas e mesas passam por ele
+    private volatile DiarioEscrita diario;
 
     // Construtor privado para garantir singleton
-    private Database() {
+    private Database(boolean criarEsquema) {
         try {
             // Registrar driver do SQLite
             Class.forName("org.sqlite.JDBC");
-            // Estabelecer conexão
-            connection = DriverManager.getConnection(URL);
-            // Criar tabelas se não existirem
-            criarTabelas();
+            // Estabelecer conexão; as transações dela pegam o lock de escrita logo no início
+            // (BEGIN IMMEDIATE), para que uma leitura feita dentro da transação não seja
+            // invalidada por outra conexão que grave antes (SQLITE_BUSY_SNAPSHOT)
+            Properties propriedades = new Properties();
+            propriedades.setProperty("transaction_mode", "IMMEDIATE");
+            connection = LogConsultasLentas.monitorar(DriverManager.getConnection(URL, propriedades));
+            configurarConexao(connection);
+            // Modo WAL: leitores (ex.: backup online) não bloqueiam escritores
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+            }
+            // Criar tabelas se não existirem, em uma única transação
+            if (criarEsquema) {
+                emTransacao(conn -> {
+                    criarTabelas(conn);
+                    return null;
+                });
+            }
         } catch (ClassNotFoundException | SQLException e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(null, 
@@ -33,11 +58,38 @@ public class Database {
      */
     public static synchronized Database getInstance() {
         if (instance == null) {
-            instance = new Database();
+            instance = new Database(true);
         }
         return instance;
     }
 
+    /**
+     * Cria as tabelas (se não existirem) e grava os dados iniciais em uma única transação:
+     * uma queda no meio não deixa o banco com o esquema pela metade ou sem as mesas
+     * @param dadosIniciais Gravação dos dados iniciais, feita na mesma transação do esquema
+     * @return Valor retornado por dadosIniciais
+     * @throws SQLException em caso de erro no banco de dados (nada é gravado)
+     */
+    public static synchronized <T> T inicializar(Transacao<T> dadosIniciais) throws SQLException {
+        boolean nova = instance == null;
+        if (nova) {
+            instance = new Database(false);
+        }
+        try {
+            return instance.emTransacao(conn -> {
+                criarTabelas(conn);
+                return dadosIniciais.executar(conn);
+            });
+        } catch (SQLException | RuntimeException e) {
+            // Sem o esquema, a instância não serve: a próxima chamada começa do zero
+            if (nova) {
+                instance.close();
+                instance = null;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Retorna a conexão ativa com o banco de dados
      */
@@ -45,10 +97,109 @@ public class Database {
         return connection;
     }
 
+    /**
+     * Operação executada dentro de uma transação
+     */
+    public interface Transacao<T> {
+        T executar(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Executa a operação em uma única transação na conexão principal
+     * Se já houver uma transação em andamento, a operação participa dela
+     * @param transacao Operação a executar
+     * @return Valor retornado pela operação
+     * @throws SQLException em caso de erro no banco de dados (a transação é desfeita)
+     */
+    public synchronized <T> T emTransacao(Transacao<T> transacao) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            return transacao.executar(connection);
+        }
+        connection.setAutoCommit(false);
+        transacaoAberta = true;
+        try {
+            T resultado = transacao.executar(connection);
+            connection.commit();
+            return resultado;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            transacaoAberta = false;
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Indica se a thread atual está dentro de emTransacao
+     * Gravações feitas nessa situação não passam pelo diário de escrita: precisam ser
+     * desfeitas junto com a transação e não podem disputar o banco com o escritor do diário
+     */
+    public boolean isEmTransacao() {
+        return Thread.holdsLock(this) && transacaoAberta;
+    }
+
+    /**
+     * Ativa o diário de escrita (write-behind), reaplicando o que ficou pendente de uma queda
+     * @param diario Diário a ser usado pelas gravações de reservas e mesas
+     * @throws SQLException em caso de erro no banco de dados
+     * @throws java.io.IOException em caso de erro no arquivo do diário
+     */
+    public void ativarDiario(DiarioEscrita diario) throws SQLException, java.io.IOException {
+        diario.iniciar();
+        this.diario = diario;
+    }
+
+    /**
+     * Retorna o diário de escrita ativo, ou null se as gravações vão direto ao banco
+     */
+    public DiarioEscrita getDiario() {
+        return diario;
+    }
+
+    /**
+     * Retorna o caminho do arquivo do banco de dados
+     */
+    public String getArquivo() {
+        return ARQUIVO;
+    }
+
+    /**
+     * Abre uma nova conexão independente com o mesmo banco de dados
+     * Usada por tarefas em segundo plano para não disputar a conexão principal
+     * @return Nova conexão, que deve ser fechada por quem a abriu
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public Connection abrirConexao() throws SQLException {
+        Connection conn = LogConsultasLentas.monitorar(DriverManager.getConnection(URL));
+        configurarConexao(conn);
+        return conn;
+    }
+
+    /**
+     * Aplica as configurações comuns a todas as conexões
+     */
+    private static void configurarConexao(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+        }
+        anexarArquivo(conn, ARQUIVO_HISTORICO);
+    }
+
+    /**
+     * Anexa o banco de reservas arquivadas à conexão, com o nome de schema "arquivo"
+     */
+    static void anexarArquivo(Connection conn, String arquivo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("ATTACH DATABASE ? AS arquivo")) {
+            stmt.setString(1, arquivo);
+            stmt.execute();
+        }
+    }
+
     /**
      * Cria todas as tabelas necessárias no banco de dados
      */
-    private void criarTabelas() throws SQLException {
+    static void criarTabelas(Connection conn) throws SQLException {
         // SQL para criação das tabelas
         String[] tabelas = {
             // Tabela de clientes
@@ -72,9 +223,20 @@ public class Database {
                 "cliente_id INTEGER NOT NULL," +
                 "mesa_numero INTEGER NOT NULL," +
                 "horario TEXT NOT NULL," +
+                "pessoas INTEGER NOT NULL DEFAULT 0," +
+                "grupo INTEGER NOT NULL DEFAULT 0," +
                 "FOREIGN KEY(cliente_id) REFERENCES clientes(id)," +
                 "FOREIGN KEY(mesa_numero) REFERENCES mesas(numero))",
                 
+            // Pares de mesas que podem ser juntadas para grupos grandes
+            "CREATE TABLE IF NOT EXISTS mesas_adjacentes (" +
+                "mesa_a INTEGER NOT NULL," +
+                "mesa_b INTEGER NOT NULL," +
+                "PRIMARY KEY (mesa_a, mesa_b)," +
+                "CHECK (mesa_a < mesa_b)," +
+                "FOREIGN KEY(mesa_a) REFERENCES mesas(numero)," +
+                "FOREIGN KEY(mesa_b) REFERENCES mesas(numero))",
+                
             // Tabela de produtos (cardápio)
             "CREATE TABLE IF NOT EXISTS produtos (" +
                 "id INTEGER PRIMARY KEY AUTOINCREMENT," +
@@ -97,15 +259,95 @@ public class Database {
                 "produto_id INTEGER NOT NULL," +
                 "quantidade INTEGER NOT NULL," +
                 "FOREIGN KEY(pedido_id) REFERENCES pedidos(id)," +
-                "FOREIGN KEY(produto_id) REFERENCES produtos(id))"
+                "FOREIGN KEY(produto_id) REFERENCES produtos(id))",
+                
+            // Índices usados pelas listagens e pela verificação de conflito
+            "CREATE INDEX IF NOT EXISTS idx_reservas_horario ON reservas (horario)",
+            "CREATE INDEX IF NOT EXISTS idx_reservas_mesa_horario ON reservas (mesa_numero, horario)",
+                
+            // Reservas arquivadas (mesmas colunas e IDs da tabela reservas)
+            "CREATE TABLE IF NOT EXISTS arquivo.reservas (" +
+                "id INTEGER PRIMARY KEY," +
+                "cliente_id INTEGER NOT NULL," +
+                "mesa_numero INTEGER NOT NULL," +
+                "horario TEXT NOT NULL," +
+                "pessoas INTEGER NOT NULL DEFAULT 0," +
+                "grupo INTEGER NOT NULL DEFAULT 0)",
+            "CREATE INDEX IF NOT EXISTS arquivo.idx_reservas_horario ON reservas (horario)",
+                
+            // Última sequência do diário de escrita já aplicada no banco
+            "CREATE TABLE IF NOT EXISTS diario_aplicado (" +
+                "id INTEGER PRIMARY KEY CHECK (id = 1)," +
+                "seq INTEGER NOT NULL)",
+                
+            // Resultados de requisições com chave de idempotência (reserva, cancelamento)
+            "CREATE TABLE IF NOT EXISTS requisicoes_idempotentes (" +
+                "chave TEXT PRIMARY KEY," +
+                "operacao TEXT NOT NULL," +
+                "hash TEXT NOT NULL DEFAULT ''," +
+                "resultado TEXT NOT NULL," +
+                "criado_em INTEGER NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS idx_requisicoes_criado_em ON requisicoes_idempotentes (criado_em)",
+                
+            // Caixa de saída de notificações aos clientes (confirmações e lembretes)
+            "CREATE TABLE IF NOT EXISTS notificacoes (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "reserva_id INTEGER NOT NULL," +
+                "tipo TEXT NOT NULL," +
+                "telefone TEXT NOT NULL," +
+                "mensagem TEXT NOT NULL," +
+                "enviar_em TEXT NOT NULL," +
+                "mesa_numero INTEGER NOT NULL DEFAULT 0," +
+                "horario_reserva TEXT," +
+                "tentativas INTEGER NOT NULL DEFAULT 0," +
+                "status TEXT NOT NULL DEFAULT 'PENDENTE'," +
+                "ultimo_erro TEXT)",
+            "CREATE INDEX IF NOT EXISTS idx_notificacoes_status_envio ON notificacoes (status, enviar_em)"
         };
 
         // Executar cada comando SQL
-        try (Statement stmt = connection.createStatement()) {
+        try (Statement stmt = conn.createStatement()) {
             for (String sql : tabelas) {
                 stmt.execute(sql);
             }
         }
+        
+        // Colunas adicionadas depois da criação original das tabelas
+        adicionarColunaSeAusente(conn, "reservas", "pessoas", "INTEGER NOT NULL DEFAULT 0");
+        adicionarColunaSeAusente(conn, "reservas", "grupo", "INTEGER NOT NULL DEFAULT 0");
+        adicionarColunaSeAusente(conn, "arquivo.reservas", "grupo", "INTEGER NOT NULL DEFAULT 0");
+        adicionarColunaSeAusente(conn, "requisicoes_idempotentes", "hash", "TEXT NOT NULL DEFAULT ''");
+        adicionarColunaSeAusente(conn, "notificacoes", "mesa_numero", "INTEGER NOT NULL DEFAULT 0");
+        adicionarColunaSeAusente(conn, "notificacoes", "horario_reserva", "TEXT");
+        
+        // Dependem de colunas que podem ter acabado de ser adicionadas
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_reservas_grupo ON reservas (grupo)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notificacoes_reserva ON notificacoes (horario_reserva, mesa_numero)");
+        }
+    }
+    
+    /**
+     * Adiciona uma coluna a uma tabela existente, se ela ainda não existir
+     * (CREATE TABLE IF NOT EXISTS não altera tabelas de bancos já criados)
+     * @param tabela Nome da tabela, com o schema quando for de um banco anexado (ex.: arquivo.reservas)
+     */
+    private static void adicionarColunaSeAusente(Connection conn, String tabela, String coluna,
+                                                 String definicao) throws SQLException {
+        // O schema vai antes do nome do pragma: PRAGMA arquivo.table_info(reservas)
+        int ponto = tabela.indexOf('.');
+        String pragma = ponto < 0 ? "PRAGMA table_info(" + tabela + ")"
+            : "PRAGMA " + tabela.substring(0, ponto) + ".table_info(" + tabela.substring(ponto + 1) + ")";
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(pragma)) {
+                while (rs.next()) {
+                    if (coluna.equalsIgnoreCase(rs.getString("name"))) {
+                        return;
+                    }
+                }
+            }
+            stmt.execute("ALTER TABLE " + tabela + " ADD COLUMN " + coluna + " " + definicao);
+        }
     }
     
     /**
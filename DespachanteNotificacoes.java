@@ -0,0 +1,221 @@
+package model;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envia em segundo plano as notificações da caixa de saída
+ * Lê as mensagens prontas em lotes, respeita um limite de envios por segundo e
+ * grava o resultado de cada lote em uma transação. Falhas temporárias são reenviadas
+ * com espera crescente (dobrando a cada tentativa); falhas definitivas e mensagens
+ * que esgotaram as tentativas ficam com status FALHA (fila de mensagens mortas).
+ * A entrega é "pelo menos uma vez": se a aplicação cair entre o envio e a gravação
+ * do lote, as mensagens desse lote são enviadas de novo
+ */
+public class DespachanteNotificacoes {
+    // Espera máxima entre tentativas, por mais que a espera dobre
+    private static final Duration ESPERA_MAXIMA = Duration.ofHours(1);
+
+    private final GatewayMensagens gateway;
+    private final int tamanhoLote;
+    private final long intervaloEntreEnviosNs;
+    private final int maxTentativas;
+    private final Duration esperaInicial;
+    private final ScheduledExecutorService executor;
+    private ScheduledFuture<?> agendamento;
+    // Um lote por vez, mesmo com chamadas diretas a processarLote fora do agendamento
+    private final Object travaLote = new Object();
+    private long proximoEnvioNs;
+
+    // Métricas
+    private final AtomicLong enviadas = new AtomicLong();
+    private final AtomicLong reagendadas = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+
+    /**
+     * Cria o despachante
+     * @param gateway Serviço que entrega as mensagens
+     * @param tamanhoLote Notificações lidas e gravadas por vez
+     * @param mensagensPorSegundo Limite de envios por segundo aceito pelo gateway
+     * @param maxTentativas Tentativas antes de a mensagem ir para a fila de mensagens mortas
+     * @param esperaInicial Espera antes da segunda tentativa (dobra a cada nova falha)
+     */
+    public DespachanteNotificacoes(GatewayMensagens gateway, int tamanhoLote, double mensagensPorSegundo,
+                                   int maxTentativas, Duration esperaInicial) {
+        if (gateway == null) {
+            throw new IllegalArgumentException("Gateway não pode ser nulo");
+        }
+        if (tamanhoLote < 1 || maxTentativas < 1) {
+            throw new IllegalArgumentException("Tamanho do lote e tentativas devem ser maiores que zero");
+        }
+        if (mensagensPorSegundo <= 0) {
+            throw new IllegalArgumentException("Limite de mensagens por segundo deve ser maior que zero");
+        }
+        if (esperaInicial == null || esperaInicial.isNegative()) {
+            throw new IllegalArgumentException("Espera inicial inválida");
+        }
+        this.gateway = gateway;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloEntreEnviosNs = (long) (TimeUnit.SECONDS.toNanos(1) / mensagensPorSegundo);
+        this.maxTentativas = maxTentativas;
+        this.esperaInicial = esperaInicial;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "despachante-notificacoes");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Agenda o esvaziamento periódico da caixa de saída
+     * @param intervalo Intervalo entre verificações
+     * @param unidade Unidade do intervalo
+     */
+    public synchronized void agendar(long intervalo, TimeUnit unidade) {
+        cancelarAgendamento();
+        agendamento = executor.scheduleWithFixedDelay(() -> {
+            try {
+                drenar();
+            } catch (SQLException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }, intervalo, intervalo, unidade);
+    }
+
+    /**
+     * Cancela o agendamento periódico (um lote em andamento termina normalmente)
+     */
+    public synchronized void cancelarAgendamento() {
+        if (agendamento != null) {
+            agendamento.cancel(false);
+            agendamento = null;
+        }
+    }
+
+    /**
+     * Processa lotes até não haver mais notificações prontas
+     * @return Quantidade de notificações processadas
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public int drenar() throws SQLException {
+        int total = 0;
+        int processadas;
+        do {
+            processadas = processarLote();
+            total += processadas;
+        } while (processadas == tamanhoLote && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    /**
+     * Envia um lote de notificações prontas e grava o resultado
+     * @return Quantidade de notificações processadas
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public int processarLote() throws SQLException {
+        synchronized (travaLote) {
+            NotificacaoRepositorio repositorio = Repositorios.notificacoes();
+            List<Notificacao> lote = repositorio.buscarProntas(LocalDateTime.now(), tamanhoLote);
+            List<Notificacao> processadas = new ArrayList<>(lote.size());
+
+            for (Notificacao n : lote) {
+                // Nada de reserva cancelada deve ser enviado (nem confirmação nem lembrete)
+                if (!n.isReservaAtiva()) {
+                    n.setStatus(Notificacao.Status.DESCARTADA);
+                    descartadas.incrementAndGet();
+                    processadas.add(n);
+                    continue;
+                }
+                if (!aguardarVez()) {
+                    break;
+                }
+                enviar(n);
+                processadas.add(n);
+            }
+
+            if (!processadas.isEmpty()) {
+                repositorio.atualizar(processadas);
+            }
+            return processadas.size();
+        }
+    }
+
+    private void enviar(Notificacao n) {
+        try {
+            gateway.enviar(n.getTelefone(), n.getMensagem());
+            n.setStatus(Notificacao.Status.ENVIADA);
+            n.setUltimoErro(null);
+            enviadas.incrementAndGet();
+        } catch (GatewayMensagens.FalhaEnvio e) {
+            registrarFalha(n, e.getMessage(), e.isDefinitiva());
+        } catch (RuntimeException e) {
+            // Erro inesperado do gateway: tratado como temporário
+            registrarFalha(n, e.toString(), false);
+        }
+    }
+
+    private void registrarFalha(Notificacao n, String erro, boolean definitiva) {
+        n.setTentativas(n.getTentativas() + 1);
+        n.setUltimoErro(erro);
+        if (definitiva || n.getTentativas() >= maxTentativas) {
+            n.setStatus(Notificacao.Status.FALHA);
+            falhas.incrementAndGet();
+            return;
+        }
+        n.setEnviarEm(LocalDateTime.now().plus(espera(n.getTentativas())));
+        reagendadas.incrementAndGet();
+    }
+
+    /**
+     * Espera antes da próxima tentativa: esperaInicial, 2x, 4x... até ESPERA_MAXIMA
+     */
+    private Duration espera(int tentativas) {
+        Duration espera = esperaInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera;
+    }
+
+    /**
+     * Aguarda até que o limite de envios por segundo permita o próximo envio
+     * @return false se a thread foi interrompida
+     */
+    private boolean aguardarVez() {
+        long agora = System.nanoTime();
+        long espera = proximoEnvioNs - agora;
+        if (espera > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(espera);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            agora = proximoEnvioNs;
+        }
+        proximoEnvioNs = agora + intervaloEntreEnviosNs;
+        return true;
+    }
+
+    /**
+     * Para o despachante; um lote em andamento termina e é gravado
+     */
+    public void encerrar() {
+        cancelarAgendamento();
+        executor.shutdown();
+    }
+
+    public long getEnviadas() { return enviadas.get(); }
+    public long getReagendadas() { return reagendadas.get(); }
+    public long getFalhas() { return falhas.get(); }
+    public long getDescartadas() { return descartadas.get(); }
+
+    @Override
+    public String toString() {
+        return String.format("Notificações: %d enviadas, %d reagendadas, %d com falha, %d descartadas",
+            getEnviadas(), getReagendadas(), getFalhas(), getDescartadas());
+    }
+}
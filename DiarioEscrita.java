@@ -0,0 +1,645 @@
+package model;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Diário de escrita (write-behind) para gravações de reservas e mesas
+ * Cada gravação é confirmada assim que é anexada a um arquivo local; uma única
+ * thread escritora aplica as gravações no SQLite em lotes, com um commit por lote.
+ * Na inicialização, gravações que ficaram no diário após uma queda são reaplicadas.
+ * Se o banco recusar um lote, a thread escritora tenta de novo com espera crescente.
+ */
+public class DiarioEscrita {
+    private static final Logger LOG = Logger.getLogger(DiarioEscrita.class.getName());
+
+    /**
+     * Define quando o diário é forçado para o disco (fsync)
+     */
+    public enum PoliticaDurabilidade {
+        /** fsync antes de confirmar cada gravação (escritores simultâneos dividem o mesmo fsync) */
+        FSYNC_POR_ESCRITA,
+        /** fsync uma vez por lote aplicado; uma queda pode perder até um intervalo de gravações */
+        FSYNC_EM_GRUPO,
+        /** Sem fsync; o sistema operacional decide quando gravar no disco */
+        SEM_FSYNC
+    }
+
+    private static final byte TIPO_RESERVA = 1;
+    private static final byte TIPO_MESA = 2;
+
+    // As gravações aplicadas são as mesmas dos repositórios; junto vai a última sequência aplicada
+    static final String SQL_GRAVAR_SEQ = "INSERT OR REPLACE INTO diario_aplicado (id, seq) VALUES (1, ?)";
+    static final String SQL_LER_SEQ = "SELECT seq FROM diario_aplicado WHERE id = 1";
+
+    // Espera da thread escritora por novas gravações antes de conferir se o diário foi encerrado
+    private static final long ESPERA_OCIOSA_MS = 200;
+    // Espera entre tentativas quando o banco recusa um lote (dobra a cada falha, até o máximo)
+    private static final long ESPERA_INICIAL_FALHA_MS = 100;
+    private static final long ESPERA_MAXIMA_FALHA_MS = 5000;
+    // Tempo que aguardarAplicacao espera enquanto a thread escritora está falhando
+    private static final long LIMITE_ESPERA_COM_FALHA_MS = 10000;
+
+    private final File arquivo;
+    private final PoliticaDurabilidade politica;
+    private final int tamanhoLote;
+    private final long atrasoMaximoMs;
+
+    // Gravações anexadas e ainda não aplicadas no banco, na ordem do diário
+    private final Queue<Registro> pendentes = new ConcurrentLinkedQueue<>();
+    // Entrega das gravações à thread escritora
+    private final BlockingQueue<Registro> fila = new LinkedBlockingQueue<>();
+    private final Object lockFsync = new Object();
+    private FileChannel canal;
+    private Thread escritor;
+    private volatile boolean ativo;
+    // Erro do último lote recusado pelo banco; null quando a escritora está em dia
+    private volatile Exception ultimaFalha;
+
+    // Sequências: última anexada, última forçada para o disco e última aplicada no banco
+    private long seqAtual;
+    private volatile long seqDuravel;
+    private volatile long seqAplicado;
+
+    // Métricas
+    private final AtomicLong gravacoes = new AtomicLong();
+    private final AtomicLong tempoConfirmacaoNs = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong registrosAplicados = new AtomicLong();
+    private final AtomicLong tempoCommitNs = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    /**
+     * Cria o diário de escrita
+     * @param arquivo Arquivo local do diário
+     * @param politica Política de durabilidade
+     * @param tamanhoLote Número máximo de gravações aplicadas por commit
+     * @param atrasoMaximoMs Tempo máximo que a thread escritora espera para juntar um lote
+     */
+    public DiarioEscrita(File arquivo, PoliticaDurabilidade politica, int tamanhoLote, long atrasoMaximoMs) {
+        if (politica == null) {
+            throw new IllegalArgumentException("Política de durabilidade não pode ser nula");
+        }
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser maior que zero");
+        }
+        if (atrasoMaximoMs < 0) {
+            throw new IllegalArgumentException("Atraso máximo não pode ser negativo");
+        }
+        this.arquivo = arquivo;
+        this.politica = politica;
+        this.tamanhoLote = tamanhoLote;
+        this.atrasoMaximoMs = atrasoMaximoMs;
+    }
+
+    /**
+     * Reaplica o que ficou no diário após uma queda e inicia a thread escritora
+     * @throws SQLException em caso de erro no banco de dados
+     * @throws IOException em caso de erro no arquivo do diário
+     */
+    public synchronized void iniciar() throws SQLException, IOException {
+        if (ativo) {
+            return;
+        }
+        canal = FileChannel.open(arquivo.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try (Connection conn = Database.getInstance().abrirConexao()) {
+            seqAplicado = lerSeqAplicado(conn);
+            List<Registro> recuperados = lerDiario();
+            List<Registro> aplicar = new ArrayList<>();
+            long maiorSeq = seqAplicado;
+            for (Registro r : recuperados) {
+                maiorSeq = Math.max(maiorSeq, r.seq);
+                if (r.seq > seqAplicado) {
+                    aplicar.add(r);
+                }
+            }
+            if (!aplicar.isEmpty()) {
+                aplicarLote(conn, aplicar);
+                LOG.warning("Diário: " + aplicar.size() + " gravações recuperadas após queda");
+            }
+            seqAtual = maiorSeq;
+            seqDuravel = maiorSeq;
+        }
+        // Tudo aplicado: o diário pode recomeçar vazio
+        canal.truncate(0);
+        canal.force(true);
+
+        ativo = true;
+        escritor = new Thread(this::executarEscritor, "diario-escrita");
+        escritor.setDaemon(true);
+        escritor.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::encerrar, "diario-encerramento"));
+    }
+
+    /**
+     * Registra a gravação de uma reserva
+     * @return Sequência atribuída à gravação
+     * @throws IOException em caso de erro no arquivo do diário
+     */
+    public long registrarReserva(int clienteId, int mesaNumero, LocalDateTime horario, int pessoas)
+            throws IOException {
+        return registrar(new Registro(TIPO_RESERVA, clienteId, mesaNumero, pessoas,
+            horario.toString(), false, false));
+    }
+
+    /**
+     * Registra a gravação de uma mesa
+     * @return Sequência atribuída à gravação
+     * @throws IOException em caso de erro no arquivo do diário
+     */
+    public long registrarMesa(int numero, int capacidade, boolean ocupada, boolean vip) throws IOException {
+        return registrar(new Registro(TIPO_MESA, numero, capacidade, 0, null, ocupada, vip));
+    }
+
+    /**
+     * Verifica se há uma reserva ainda não aplicada no banco para a mesa e horário
+     * Necessário porque as consultas ao banco só enxergam o que já foi aplicado
+     */
+    public boolean temReservaPendente(int mesaNumero, LocalDateTime horario) {
+        String h = horario.toString();
+        for (Registro r : pendentes) {
+            if (r.tipo == TIPO_RESERVA && r.b == mesaNumero && h.equals(r.texto)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Aplica sobre a mesa lida do banco a última gravação dela ainda pendente no diário
+     * (ex.: mesa marcada como ocupada por uma reserva que ainda não chegou ao banco)
+     * @param numero Número da mesa
+     * @param doBanco Mesa lida do banco, ou null se não está no banco
+     * @return A mesa com os dados pendentes, ou doBanco se não há gravação pendente dela
+     */
+    public Mesa sobreporMesaPendente(int numero, Mesa doBanco) {
+        Mesa mesa = doBanco;
+        for (Registro r : pendentes) {
+            if (r.tipo == TIPO_MESA && r.a == numero) {
+                mesa = r.aplicarEm(mesa);
+            }
+        }
+        return mesa;
+    }
+
+    /**
+     * Aplica sobre as mesas lidas do banco as gravações de mesas ainda pendentes no diário
+     * Mesas que só existem no diário são incluídas; a lista continua ordenada por número
+     */
+    public void sobreporMesasPendentes(List<Mesa> mesas) {
+        Map<Integer, Mesa> porNumero = null;
+        for (Registro r : pendentes) {
+            if (r.tipo != TIPO_MESA) {
+                continue;
+            }
+            if (porNumero == null) {
+                porNumero = new HashMap<>();
+                for (Mesa m : mesas) {
+                    porNumero.put(m.getNumero(), m);
+                }
+            }
+            porNumero.put(r.a, r.aplicarEm(porNumero.get(r.a)));
+        }
+        if (porNumero != null) {
+            mesas.clear();
+            mesas.addAll(porNumero.values());
+            mesas.sort(Comparator.comparingInt(Mesa::getNumero));
+        }
+    }
+
+    /**
+     * Aguarda até que todas as gravações confirmadas até agora estejam aplicadas no banco
+     * Usado antes de operações que leem e alteram os mesmos dados diretamente no banco
+     * @throws SQLException se a thread escritora parou ou o banco recusa as gravações há muito tempo
+     */
+    public void aguardarAplicacao() throws InterruptedException, SQLException {
+        long alvo;
+        Thread t;
+        synchronized (this) {
+            alvo = seqAtual;
+            t = escritor;
+        }
+        long inicioFalha = 0;
+        synchronized (pendentes) {
+            while (seqAplicado < alvo) {
+                if (t == null || !t.isAlive()) {
+                    throw new SQLException("Diário de escrita parado; as gravações pendentes " +
+                        "serão aplicadas na próxima inicialização", ultimaFalha);
+                }
+                Exception falha = ultimaFalha;
+                if (falha == null) {
+                    inicioFalha = 0;
+                } else if (inicioFalha == 0) {
+                    inicioFalha = System.nanoTime();
+                } else if (System.nanoTime() - inicioFalha > TimeUnit.MILLISECONDS.toNanos(LIMITE_ESPERA_COM_FALHA_MS)) {
+                    throw new SQLException("O banco não está aceitando as gravações do diário: " +
+                        falha.getMessage(), falha);
+                }
+                pendentes.wait(100);
+            }
+        }
+    }
+
+    /**
+     * Para de aceitar gravações, aplica as pendentes e fecha o diário
+     */
+    public void encerrar() {
+        Thread t;
+        synchronized (this) {
+            if (!ativo) {
+                return;
+            }
+            ativo = false;
+            t = escritor;
+        }
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(10));
+            synchronized (this) {
+                canal.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Erro ao fechar o diário de escrita", e);
+        }
+    }
+
+    public PoliticaDurabilidade getPolitica() { return politica; }
+    public int getPendentes() { return pendentes.size(); }
+    public long getGravacoes() { return gravacoes.get(); }
+    public long getLotes() { return lotes.get(); }
+    public long getFalhas() { return falhas.get(); }
+
+    /**
+     * Erro do último lote recusado pelo banco, ou null se a thread escritora está em dia
+     */
+    public Exception getUltimaFalha() { return ultimaFalha; }
+
+    /**
+     * Tempo médio (µs) entre o pedido de gravação e a confirmação ao chamador
+     */
+    public double getLatenciaConfirmacaoMediaUs() {
+        long n = gravacoes.get();
+        return n == 0 ? 0 : tempoConfirmacaoNs.get() / 1000.0 / n;
+    }
+
+    /**
+     * Número médio de gravações aplicadas por commit
+     */
+    public double getTamanhoMedioLote() {
+        long n = lotes.get();
+        return n == 0 ? 0 : (double) registrosAplicados.get() / n;
+    }
+
+    /**
+     * Tempo médio (ms) de cada commit em lote no SQLite
+     */
+    public double getTempoMedioCommitMs() {
+        long n = lotes.get();
+        return n == 0 ? 0 : tempoCommitNs.get() / 1e6 / n;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Diário %s: %d gravações, confirmação média %.1f µs, %d lotes " +
+                "(média %.1f gravações, commit %.2f ms), %d pendentes, %d lotes recusados",
+            politica, getGravacoes(), getLatenciaConfirmacaoMediaUs(), getLotes(),
+            getTamanhoMedioLote(), getTempoMedioCommitMs(), getPendentes(), getFalhas());
+    }
+
+    /**
+     * Anexa o registro ao diário e o entrega à thread escritora
+     */
+    private long registrar(Registro registro) throws IOException {
+        long inicio = System.nanoTime();
+        synchronized (this) {
+            if (!ativo) {
+                throw new IllegalStateException("Diário de escrita não está ativo");
+            }
+            registro.seq = ++seqAtual;
+            canal.write(registro.serializar());
+            pendentes.add(registro);
+            fila.add(registro);
+        }
+        if (politica == PoliticaDurabilidade.FSYNC_POR_ESCRITA) {
+            forcarAte(registro.seq);
+        }
+        gravacoes.incrementAndGet();
+        tempoConfirmacaoNs.addAndGet(System.nanoTime() - inicio);
+        return registro.seq;
+    }
+
+    /**
+     * Garante que o diário está no disco até a sequência informada
+     * Quem chega enquanto outro fsync está em andamento geralmente já sai coberto por ele
+     */
+    private void forcarAte(long seq) throws IOException {
+        synchronized (lockFsync) {
+            if (seqDuravel >= seq) {
+                return;
+            }
+            long alvo;
+            synchronized (this) {
+                alvo = seqAtual;
+            }
+            canal.force(false);
+            seqDuravel = alvo;
+        }
+    }
+
+    /**
+     * Laço da thread escritora: junta gravações pendentes e aplica em lotes
+     * Um lote recusado pelo banco continua pendente e é tentado de novo com espera crescente;
+     * ao encerrar, o que não foi aplicado fica no arquivo para a próxima inicialização
+     */
+    private void executarEscritor() {
+        List<Registro> lote = new ArrayList<>(tamanhoLote);
+        Connection conn = null;
+        long esperaFalha = ESPERA_INICIAL_FALHA_MS;
+        try {
+            while (ativo || !fila.isEmpty() || !lote.isEmpty()) {
+                if (lote.isEmpty() && !juntarLote(lote)) {
+                    continue;
+                }
+                try {
+                    if (conn == null) {
+                        conn = Database.getInstance().abrirConexao();
+                    }
+                    if (politica == PoliticaDurabilidade.FSYNC_EM_GRUPO) {
+                        forcarAte(lote.get(lote.size() - 1).seq);
+                    }
+                    aplicarLote(conn, lote);
+                } catch (SQLException | IOException e) {
+                    ultimaFalha = e;
+                    falhas.incrementAndGet();
+                    LOG.log(Level.WARNING, "Lote do diário recusado pelo banco; nova tentativa com espera", e);
+                    // A conexão pode ter ficado inutilizável; a próxima tentativa abre outra
+                    fecharConexao(conn);
+                    conn = null;
+                    if (!ativo) {
+                        break;
+                    }
+                    Thread.sleep(esperaFalha);
+                    esperaFalha = Math.min(esperaFalha * 2, ESPERA_MAXIMA_FALHA_MS);
+                    continue;
+                }
+                ultimaFalha = null;
+                esperaFalha = ESPERA_INICIAL_FALHA_MS;
+
+                // Só sai de pendentes depois de aplicado, para temReservaPendente continuar enxergando
+                synchronized (pendentes) {
+                    for (int i = 0; i < lote.size(); i++) {
+                        pendentes.poll();
+                    }
+                    pendentes.notifyAll();
+                }
+                lote.clear();
+                try {
+                    truncarSeAplicado();
+                } catch (IOException e) {
+                    // Sem truncar o arquivo só cresce; a sequência aplicada evita reaplicar na inicialização
+                    LOG.log(Level.WARNING, "Erro ao truncar o diário de escrita", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            fecharConexao(conn);
+            // Quem aguarda a aplicação percebe que a escritora parou
+            synchronized (pendentes) {
+                pendentes.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Espera pela próxima gravação e junta as que chegarem até o atraso máximo ou até encher o lote
+     * @return false se nenhuma gravação chegou durante a espera
+     */
+    private boolean juntarLote(List<Registro> lote) throws InterruptedException {
+        Registro primeiro = fila.poll(ESPERA_OCIOSA_MS, TimeUnit.MILLISECONDS);
+        if (primeiro == null) {
+            return false;
+        }
+        lote.add(primeiro);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(atrasoMaximoMs);
+        while (lote.size() < tamanhoLote) {
+            fila.drainTo(lote, tamanhoLote - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() == tamanhoLote || restante <= 0 || !ativo) {
+                break;
+            }
+            // Espera um pouco para juntar mais gravações no mesmo commit
+            Registro proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proximo == null) {
+                break;
+            }
+            lote.add(proximo);
+        }
+        return true;
+    }
+
+    private static void fecharConexao(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                LOG.log(Level.FINE, "Erro ao fechar a conexão do diário", e);
+            }
+        }
+    }
+
+    /**
+     * Aplica um lote de gravações em uma única transação, junto com a última sequência aplicada
+     */
+    private void aplicarLote(Connection conn, List<Registro> lote) throws SQLException {
+        long inicio = System.nanoTime();
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmtReserva = conn.prepareStatement(SQLiteReservaRepositorio.SQL_INSERIR);
+             PreparedStatement stmtMesa = conn.prepareStatement(SQLiteMesaRepositorio.SQL_SALVAR);
+             PreparedStatement stmtSeq = conn.prepareStatement(SQL_GRAVAR_SEQ)) {
+            long ultimaSeq = seqAplicado;
+            // As gravações são executadas na ordem do diário
+            for (Registro r : lote) {
+                if (r.tipo == TIPO_RESERVA) {
+                    stmtReserva.setInt(1, r.a);
+                    stmtReserva.setInt(2, r.b);
+                    stmtReserva.setString(3, r.texto);
+                    stmtReserva.setInt(4, r.c);
+                    stmtReserva.executeUpdate();
+                } else {
+                    stmtMesa.setInt(1, r.a);
+                    stmtMesa.setInt(2, r.b);
+                    stmtMesa.setBoolean(3, r.flag1);
+                    stmtMesa.setBoolean(4, r.flag2);
+                    stmtMesa.executeUpdate();
+                }
+                ultimaSeq = r.seq;
+            }
+            stmtSeq.setLong(1, ultimaSeq);
+            stmtSeq.executeUpdate();
+            conn.commit();
+            seqAplicado = ultimaSeq;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        lotes.incrementAndGet();
+        registrosAplicados.addAndGet(lote.size());
+        tempoCommitNs.addAndGet(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Esvazia o arquivo do diário quando tudo o que foi anexado já está no banco
+     */
+    private synchronized void truncarSeAplicado() throws IOException {
+        if (seqAplicado == seqAtual && canal.isOpen()) {
+            canal.truncate(0);
+            canal.position(0);
+        }
+    }
+
+    private static long lerSeqAplicado(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_LER_SEQ)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Lê os registros íntegros do diário; um registro final incompleto ou corrompido
+     * (queda no meio da gravação) encerra a leitura
+     */
+    private List<Registro> lerDiario() throws IOException {
+        List<Registro> registros = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivo)))) {
+            while (true) {
+                int tamanho;
+                long crc;
+                try {
+                    tamanho = in.readInt();
+                    crc = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (tamanho <= 0 || tamanho > 64 * 1024) {
+                    break;
+                }
+                byte[] dados = new byte[tamanho];
+                try {
+                    in.readFully(dados);
+                } catch (EOFException e) {
+                    break;
+                }
+                CRC32 verificacao = new CRC32();
+                verificacao.update(dados);
+                if (verificacao.getValue() != crc) {
+                    break;
+                }
+                registros.add(Registro.desserializar(dados));
+            }
+        }
+        return registros;
+    }
+
+    /**
+     * Gravação anexada ao diário
+     * Reserva: a = cliente, b = mesa, c = pessoas, texto = horário
+     * Mesa: a = número, b = capacidade, flag1 = ocupada, flag2 = vip
+     */
+    private static class Registro {
+        private long seq;
+        private final byte tipo;
+        private final int a;
+        private final int b;
+        private final int c;
+        private final String texto;
+        private final boolean flag1;
+        private final boolean flag2;
+
+        Registro(byte tipo, int a, int b, int c, String texto, boolean flag1, boolean flag2) {
+            this.tipo = tipo;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.texto = texto;
+            this.flag1 = flag1;
+            this.flag2 = flag2;
+        }
+
+        /**
+         * Formato: [tamanho int][crc32 long][seq long][tipo byte][a int][b int][c int][texto UTF][flag1][flag2]
+         */
+        ByteBuffer serializar() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(seq);
+            out.writeByte(tipo);
+            out.writeInt(a);
+            out.writeInt(b);
+            out.writeInt(c);
+            out.writeUTF(texto == null ? "" : texto);
+            out.writeBoolean(flag1);
+            out.writeBoolean(flag2);
+            byte[] dados = bytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(dados);
+            ByteBuffer buffer = ByteBuffer.allocate(4 + 8 + dados.length);
+            buffer.putInt(dados.length);
+            buffer.putLong(crc.getValue());
+            buffer.put(dados);
+            buffer.flip();
+            return buffer;
+        }
+
+        /**
+         * Aplica a gravação de mesa sobre a mesa informada (ou sobre uma nova, se for null)
+         */
+        Mesa aplicarEm(Mesa mesa) {
+            Mesa m = mesa != null ? mesa : new Mesa();
+            m.setNumero(a);
+            m.setCapacidade(b);
+            m.setOcupada(flag1);
+            return m;
+        }
+
+        static Registro desserializar(byte[] dados) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(dados));
+            long seq = in.readLong();
+            byte tipo = in.readByte();
+            int a = in.readInt();
+            int b = in.readInt();
+            int c = in.readInt();
+            String texto = in.readUTF();
+            boolean flag1 = in.readBoolean();
+            boolean flag2 = in.readBoolean();
+            Registro r = new Registro(tipo, a, b, c, texto, flag1, flag2);
+            r.seq = seq;
+            return r;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway de mensagens local, que não sai da máquina
+ * Guarda as últimas mensagens "enviadas" e pode simular latência e falhas temporárias,
+ * para testar e medir o despacho sem depender do serviço real
+ */
+public class GatewayLocal implements GatewayMensagens {
+    private static final int MAX_GUARDADAS = 1000;
+
+    private final long latenciaMs;
+    private final double taxaFalha;
+    private final boolean exibir;
+    private final List<String> enviadas = new ArrayList<>();
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Gateway que apenas exibe as mensagens no console
+     */
+    public GatewayLocal() {
+        this(0, 0, true);
+    }
+
+    /**
+     * @param latenciaMs Tempo simulado de cada envio
+     * @param taxaFalha Fração dos envios que falha temporariamente (0 a 1)
+     * @param exibir Se as mensagens são exibidas no console
+     */
+    public GatewayLocal(long latenciaMs, double taxaFalha, boolean exibir) {
+        if (latenciaMs < 0) {
+            throw new IllegalArgumentException("Latência não pode ser negativa");
+        }
+        if (taxaFalha < 0 || taxaFalha > 1) {
+            throw new IllegalArgumentException("Taxa de falha deve ser entre 0 e 1");
+        }
+        this.latenciaMs = latenciaMs;
+        this.taxaFalha = taxaFalha;
+        this.exibir = exibir;
+    }
+
+    @Override
+    public void enviar(String telefone, String mensagem) throws FalhaEnvio {
+        if (telefone == null || !telefone.matches("\\d{11}")) {
+            throw new FalhaEnvio("Telefone inválido: " + telefone, true);
+        }
+        if (latenciaMs > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FalhaEnvio("Envio interrompido", e);
+            }
+        }
+        if (taxaFalha > 0 && ThreadLocalRandom.current().nextDouble() < taxaFalha) {
+            throw new FalhaEnvio("Falha simulada", false);
+        }
+
+        total.incrementAndGet();
+        synchronized (enviadas) {
+            if (enviadas.size() == MAX_GUARDADAS) {
+                enviadas.remove(0);
+            }
+            enviadas.add(telefone + ": " + mensagem);
+        }
+        if (exibir) {
+            System.out.println("[mensagem] " + telefone + ": " + mensagem);
+        }
+    }
+
+    /**
+     * Últimas mensagens entregues (no máximo 1000), no formato "telefone: mensagem"
+     */
+    public List<String> getEnviadas() {
+        synchronized (enviadas) {
+            return new ArrayList<>(enviadas);
+        }
+    }
+
+    public long getTotalEnviadas() { return total.get(); }
+}
@@ -0,0 +1,42 @@
+package model;
+
+/**
+ * Serviço externo que entrega mensagens ao telefone do cliente (SMS, WhatsApp etc.)
+ * O DespachanteNotificacoes recebe a implementação no construtor; GatewayLocal
+ * substitui o serviço real em testes, benchmarks e desenvolvimento
+ */
+public interface GatewayMensagens {
+
+    /**
+     * Envia uma mensagem
+     * @param telefone Telefone do cliente (11 dígitos)
+     * @param mensagem Texto da mensagem
+     * @throws FalhaEnvio se a mensagem não foi entregue
+     */
+    void enviar(String telefone, String mensagem) throws FalhaEnvio;
+
+    /**
+     * Falha no envio
+     * Falhas definitivas (ex.: número inexistente) não são tentadas de novo;
+     * as demais (ex.: serviço fora do ar, limite excedido) são reenviadas mais tarde
+     */
+    class FalhaEnvio extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean definitiva;
+
+        public FalhaEnvio(String mensagem, boolean definitiva) {
+            super(mensagem);
+            this.definitiva = definitiva;
+        }
+
+        public FalhaEnvio(String mensagem, Throwable causa) {
+            super(mensagem, causa);
+            this.definitiva = false;
+        }
+
+        public boolean isDefinitiva() {
+            return definitiva;
+        }
+    }
+}
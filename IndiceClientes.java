@@ -0,0 +1,415 @@
+package model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória para sugerir clientes enquanto o nome ou o telefone é digitado
+ * As chaves (nome normalizado, cada sobrenome e o telefone) ficam em um array ordenado
+ * e a busca por prefixo é uma busca binária seguida de uma leitura sequencial, sem
+ * acessar o banco. O índice é imutável: cada alteração monta um novo retrato e o
+ * publica em um campo volatile, então as buscas nunca esperam por gravações.
+ * Inclusões vão para um segmento pequeno de recentes, intercalado na base de tempos
+ * em tempos, para que salvar um cliente não copie o índice inteiro
+ */
+public class IndiceClientes {
+    private static final IndiceClientes INSTANCIA = new IndiceClientes();
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Mínimo de clientes acumulados nos recentes antes de intercalá-los na base
+    private static final int MIN_RECENTES = 256;
+
+    private volatile Retrato retrato = new Retrato(Segmento.VAZIO, Segmento.VAZIO);
+
+    private IndiceClientes() {}
+
+    /**
+     * Retorna o índice compartilhado pelo sistema
+     */
+    public static IndiceClientes getInstance() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Substitui o conteúdo do índice (ex.: na inicialização, com todos os clientes)
+     * Clientes adicionados enquanto a lista era lida do banco são mantidos
+     * @param clientes Clientes a indexar
+     */
+    public synchronized void carregar(List<Cliente> clientes) {
+        Retrato anterior = retrato;
+        Cliente[] porId = clientes.toArray(new Cliente[0]);
+        Arrays.sort(porId, (a, b) -> Integer.compare(a.getId(), b.getId()));
+
+        int[] ids = new int[porId.length];
+        String[] nomes = new String[porId.length];
+        String[] telefones = new String[porId.length];
+        List<Chave> chaves = new ArrayList<>(porId.length * 3);
+        for (int i = 0; i < porId.length; i++) {
+            ids[i] = porId[i].getId();
+            nomes[i] = porId[i].getNome();
+            telefones[i] = porId[i].getTelefone();
+            for (String chave : chavesDe(nomes[i], telefones[i])) {
+                chaves.add(new Chave(chave, ids[i]));
+            }
+        }
+        chaves.sort(null);
+
+        String[] textos = new String[chaves.size()];
+        int[] donos = new int[chaves.size()];
+        for (int i = 0; i < textos.length; i++) {
+            textos[i] = chaves.get(i).texto;
+            donos[i] = chaves.get(i).id;
+        }
+        retrato = new Retrato(new Segmento(ids, nomes, telefones, textos, donos), Segmento.VAZIO);
+
+        for (Segmento segmento : new Segmento[] {anterior.base, anterior.recentes}) {
+            for (int i = 0; i < segmento.ids.length; i++) {
+                incluir(segmento.ids[i], segmento.nomes[i], segmento.telefones[i]);
+            }
+        }
+    }
+
+    /**
+     * Inclui um cliente recém-salvo (ignora clientes já indexados ou sem ID)
+     */
+    public synchronized void adicionar(Cliente cliente) {
+        incluir(cliente.getId(), cliente.getNome(), cliente.getTelefone());
+    }
+
+    /**
+     * O cliente entra no segmento de recentes, então a cópia é proporcional a ele e não
+     * ao índice inteiro (adicionar roda dentro da transação da reserva, com o banco travado).
+     * Quando os recentes passam de cerca de raiz(n) clientes são intercalados na base: uma
+     * cópia completa a cada raiz(n) inclusões, em vez de uma por inclusão
+     */
+    private void incluir(int id, String nome, String telefone) {
+        Retrato atual = retrato;
+        if (id == 0 || atual.base.contem(id) || atual.recentes.contem(id)) {
+            return;
+        }
+        Segmento recentes = atual.recentes.comCliente(id, nome, telefone);
+        if (recentes.ids.length >= limiteRecentes(atual.base.ids.length)) {
+            retrato = new Retrato(atual.base.intercalar(recentes), Segmento.VAZIO);
+        } else {
+            retrato = new Retrato(atual.base, recentes);
+        }
+    }
+
+    private static int limiteRecentes(int tamanhoBase) {
+        return Math.max(MIN_RECENTES, (int) Math.sqrt(tamanhoBase));
+    }
+
+    /**
+     * Remove um cliente do índice (ex.: gravação desfeita junto com a transação)
+     * Clientes recém-incluídos estão nos recentes, então em geral só eles são copiados
+     */
+    public synchronized void remover(int id) {
+        Retrato atual = retrato;
+        if (atual.recentes.contem(id)) {
+            retrato = new Retrato(atual.base, atual.recentes.semCliente(id));
+        } else if (atual.base.contem(id)) {
+            retrato = new Retrato(atual.base.semCliente(id), atual.recentes);
+        }
+    }
+
+    /**
+     * Busca clientes cujo nome, algum sobrenome ou telefone começa com o texto
+     * Maiúsculas, acentos e pontuação são ignorados
+     * @param texto Texto digitado
+     * @param limite Quantidade máxima de sugestões
+     * @return Clientes encontrados, em ordem alfabética da chave que coincidiu
+     */
+    public List<Cliente> buscar(String texto, int limite) {
+        List<Cliente> sugestoes = new ArrayList<>();
+        String prefixo = normalizar(texto);
+        if (prefixo.isEmpty() || limite < 1) {
+            return sugestoes;
+        }
+
+        // Percorre as chaves dos dois segmentos ao mesmo tempo, sempre pela menor
+        Retrato r = retrato;
+        Segmento base = r.base;
+        Segmento recentes = r.recentes;
+        int i = limiteInferior(base.chaves, prefixo);
+        int k = limiteInferior(recentes.chaves, prefixo);
+        int[] encontrados = new int[limite];
+        int quantidade = 0;
+        while (quantidade < limite) {
+            boolean naBase = i < base.chaves.length && base.chaves[i].startsWith(prefixo);
+            boolean nosRecentes = k < recentes.chaves.length && recentes.chaves[k].startsWith(prefixo);
+            if (!naBase && !nosRecentes) {
+                break;
+            }
+            Segmento segmento;
+            int posicaoChave;
+            if (naBase && (!nosRecentes || base.chaves[i].compareTo(recentes.chaves[k]) <= 0)) {
+                segmento = base;
+                posicaoChave = i++;
+            } else {
+                segmento = recentes;
+                posicaoChave = k++;
+            }
+            int id = segmento.donos[posicaoChave];
+            boolean repetido = false;
+            for (int j = 0; j < quantidade && !repetido; j++) {
+                repetido = encontrados[j] == id;
+            }
+            if (repetido) {
+                continue;
+            }
+            encontrados[quantidade++] = id;
+
+            int posicao = Arrays.binarySearch(segmento.ids, id);
+            Cliente c = new Cliente();
+            c.setId(id);
+            c.setNome(segmento.nomes[posicao]);
+            c.setTelefone(segmento.telefones[posicao]);
+            sugestoes.add(c);
+        }
+        return sugestoes;
+    }
+
+    /**
+     * Quantidade de clientes indexados
+     */
+    public int getQuantidade() {
+        Retrato r = retrato;
+        return r.base.ids.length + r.recentes.ids.length;
+    }
+
+    /**
+     * Converte para minúsculas, remove acentos e troca pontuação por um espaço
+     * (telefones digitados como "(11) 98765-4321" viram "11 98765 4321", por isso
+     * textos só com dígitos e separadores são reduzidos aos dígitos)
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        String normalizado = SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        if (!normalizado.isEmpty() && normalizado.replace(" ", "").chars().allMatch(Character::isDigit)) {
+            return normalizado.replace(" ", "");
+        }
+        return normalizado;
+    }
+
+    /**
+     * Chaves de um cliente: o nome completo, o nome a partir de cada sobrenome e o telefone
+     */
+    private static List<String> chavesDe(String nome, String telefone) {
+        List<String> chaves = new ArrayList<>(4);
+        String normalizado = normalizar(nome);
+        if (!normalizado.isEmpty()) {
+            chaves.add(normalizado);
+            for (int i = normalizado.indexOf(' '); i >= 0; i = normalizado.indexOf(' ', i + 1)) {
+                chaves.add(normalizado.substring(i + 1));
+            }
+        }
+        String digitos = normalizar(telefone);
+        if (!digitos.isEmpty()) {
+            chaves.add(digitos);
+        }
+        return chaves;
+    }
+
+    /**
+     * Primeira posição cuja chave não é menor que o texto
+     */
+    private static int limiteInferior(String[] chaves, String texto) {
+        int inicio = 0;
+        int fim = chaves.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (chaves[meio].compareTo(texto) < 0) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    private static int[] inserir(int[] origem, int posicao, int valor) {
+        int[] destino = new int[origem.length + 1];
+        System.arraycopy(origem, 0, destino, 0, posicao);
+        destino[posicao] = valor;
+        System.arraycopy(origem, posicao, destino, posicao + 1, origem.length - posicao);
+        return destino;
+    }
+
+    private static String[] inserir(String[] origem, int posicao, String valor) {
+        String[] destino = new String[origem.length + 1];
+        System.arraycopy(origem, 0, destino, 0, posicao);
+        destino[posicao] = valor;
+        System.arraycopy(origem, posicao, destino, posicao + 1, origem.length - posicao);
+        return destino;
+    }
+
+    private static int[] remover(int[] origem, int posicao) {
+        int[] destino = new int[origem.length - 1];
+        System.arraycopy(origem, 0, destino, 0, posicao);
+        System.arraycopy(origem, posicao + 1, destino, posicao, destino.length - posicao);
+        return destino;
+    }
+
+    private static String[] remover(String[] origem, int posicao) {
+        String[] destino = new String[origem.length - 1];
+        System.arraycopy(origem, 0, destino, 0, posicao);
+        System.arraycopy(origem, posicao + 1, destino, posicao, destino.length - posicao);
+        return destino;
+    }
+
+    /**
+     * Conteúdo imutável do índice: a base, com quase todos os clientes, e os recentes,
+     * pequenos, que recebem as inclusões até serem intercalados na base
+     */
+    private static class Retrato {
+        private final Segmento base;
+        private final Segmento recentes;
+
+        Retrato(Segmento base, Segmento recentes) {
+            this.base = base;
+            this.recentes = recentes;
+        }
+    }
+
+    /**
+     * Parte imutável do índice
+     * Os dados dos clientes ficam em arrays paralelos ordenados por ID;
+     * chaves e donos são paralelos e ordenados pela chave
+     */
+    private static class Segmento {
+        private static final Segmento VAZIO = new Segmento(new int[0], new String[0], new String[0],
+            new String[0], new int[0]);
+
+        private final int[] ids;
+        private final String[] nomes;
+        private final String[] telefones;
+        private final String[] chaves;
+        private final int[] donos;
+
+        Segmento(int[] ids, String[] nomes, String[] telefones, String[] chaves, int[] donos) {
+            this.ids = ids;
+            this.nomes = nomes;
+            this.telefones = telefones;
+            this.chaves = chaves;
+            this.donos = donos;
+        }
+
+        boolean contem(int id) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        /**
+         * Cópia do segmento com mais um cliente (que ainda não pode estar nele)
+         */
+        Segmento comCliente(int id, String nome, String telefone) {
+            int posicao = -Arrays.binarySearch(ids, id) - 1;
+            int[] novosIds = inserir(ids, posicao, id);
+            String[] novosNomes = inserir(nomes, posicao, nome);
+            String[] novosTelefones = inserir(telefones, posicao, telefone);
+
+            // Intercala as chaves novas (ordenadas) com as existentes em uma única cópia
+            List<String> novas = chavesDe(nome, telefone);
+            novas.sort(null);
+            String[] textos = new String[chaves.length + novas.size()];
+            int[] novosDonos = new int[textos.length];
+            int origem = 0;
+            int destino = 0;
+            for (String chave : novas) {
+                int i = limiteInferior(chaves, chave);
+                System.arraycopy(chaves, origem, textos, destino, i - origem);
+                System.arraycopy(donos, origem, novosDonos, destino, i - origem);
+                destino += i - origem;
+                origem = i;
+                textos[destino] = chave;
+                novosDonos[destino++] = id;
+            }
+            System.arraycopy(chaves, origem, textos, destino, chaves.length - origem);
+            System.arraycopy(donos, origem, novosDonos, destino, donos.length - origem);
+            return new Segmento(novosIds, novosNomes, novosTelefones, textos, novosDonos);
+        }
+
+        /**
+         * Cópia do segmento sem o cliente (que precisa estar nele)
+         */
+        Segmento semCliente(int id) {
+            int posicao = Arrays.binarySearch(ids, id);
+            int restantes = 0;
+            for (int dono : donos) {
+                if (dono != id) {
+                    restantes++;
+                }
+            }
+            String[] textos = new String[restantes];
+            int[] novosDonos = new int[restantes];
+            for (int i = 0, j = 0; i < donos.length; i++) {
+                if (donos[i] != id) {
+                    textos[j] = chaves[i];
+                    novosDonos[j++] = donos[i];
+                }
+            }
+            return new Segmento(remover(ids, posicao), remover(nomes, posicao),
+                remover(telefones, posicao), textos, novosDonos);
+        }
+
+        /**
+         * Une dois segmentos sem clientes em comum, intercalando os arrays já ordenados
+         */
+        Segmento intercalar(Segmento outro) {
+            int total = ids.length + outro.ids.length;
+            int[] novosIds = new int[total];
+            String[] novosNomes = new String[total];
+            String[] novosTelefones = new String[total];
+            for (int i = 0, j = 0, d = 0; d < total; d++) {
+                if (j >= outro.ids.length || (i < ids.length && ids[i] < outro.ids[j])) {
+                    novosIds[d] = ids[i];
+                    novosNomes[d] = nomes[i];
+                    novosTelefones[d] = telefones[i++];
+                } else {
+                    novosIds[d] = outro.ids[j];
+                    novosNomes[d] = outro.nomes[j];
+                    novosTelefones[d] = outro.telefones[j++];
+                }
+            }
+
+            int totalChaves = chaves.length + outro.chaves.length;
+            String[] textos = new String[totalChaves];
+            int[] novosDonos = new int[totalChaves];
+            for (int i = 0, j = 0, d = 0; d < totalChaves; d++) {
+                if (j >= outro.chaves.length || (i < chaves.length && chaves[i].compareTo(outro.chaves[j]) <= 0)) {
+                    textos[d] = chaves[i];
+                    novosDonos[d] = donos[i++];
+                } else {
+                    textos[d] = outro.chaves[j];
+                    novosDonos[d] = outro.donos[j++];
+                }
+            }
+            return new Segmento(novosIds, novosNomes, novosTelefones, textos, novosDonos);
+        }
+    }
+
+    /**
+     * Chave com o ID do cliente, usada para ordenar na carga
+     */
+    private static class Chave implements Comparable<Chave> {
+        private final String texto;
+        private final int id;
+
+        Chave(String texto, int id) {
+            this.texto = texto;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Chave outra) {
+            return texto.compareTo(outra.texto);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Linha de uma listagem de reservas: somente leitura e com apenas o que as tabelas exibem
+ * Diferente de Reserva, não monta Cliente nem Mesa nem passa pelos setters com validação.
+ * Da mesa guarda só número e capacidade. Na mesma listagem, linhas do mesmo horário
+ * compartilham o horário já convertido e formatado
+ */
+public final class LinhaReserva {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final int id;
+    private final int clienteId;
+    private final String clienteNome;
+    private final String clienteTelefone;
+    private final int mesaNumero;
+    private final int mesaCapacidade;
+    private final Horario horario;
+    private final int pessoas;
+
+    private LinhaReserva(int id, int clienteId, String clienteNome, String clienteTelefone,
+                         int mesaNumero, int mesaCapacidade, Horario horario, int pessoas) {
+        this.id = id;
+        this.clienteId = clienteId;
+        this.clienteNome = clienteNome;
+        this.clienteTelefone = clienteTelefone;
+        this.mesaNumero = mesaNumero;
+        this.mesaCapacidade = mesaCapacidade;
+        this.horario = horario;
+        this.pessoas = pessoas;
+    }
+
+    public int getId() { return id; }
+    public int getClienteId() { return clienteId; }
+    public String getClienteNome() { return clienteNome; }
+    public String getClienteTelefone() { return clienteTelefone; }
+    public int getMesaNumero() { return mesaNumero; }
+    public int getMesaCapacidade() { return mesaCapacidade; }
+    public int getPessoas() { return pessoas; }
+    public LocalDateTime getHorario() { return horario.valor; }
+    public String getHorarioFormatado() { return horario.formatado; }
+
+    /**
+     * Monta as linhas de uma listagem, reaproveitando horários já vistos nela
+     * Uma instância deve ser usada em uma única listagem
+     */
+    static class Montador {
+        private final Map<String, Horario> horarios = new HashMap<>();
+
+        /**
+         * Lê a linha atual de um ResultSet com as colunas das listagens de reservas
+         */
+        LinhaReserva ler(ResultSet rs) throws SQLException {
+            return new LinhaReserva(rs.getInt("id"), rs.getInt("cliente_id"), rs.getString("cliente_nome"),
+                rs.getString("cliente_telefone"), rs.getInt("mesa_numero"), rs.getInt("mesa_capacidade"),
+                horario(rs.getString("horario")), rs.getInt("pessoas"));
+        }
+
+        /**
+         * Monta a linha a partir de objetos já em memória
+         */
+        LinhaReserva montar(int id, Cliente cliente, Mesa mesa, LocalDateTime valor, int pessoas) {
+            Horario horario = horarios.computeIfAbsent(valor.toString(), texto -> new Horario(valor));
+            return new LinhaReserva(id, cliente.getId(), cliente.getNome(), cliente.getTelefone(),
+                mesa.getNumero(), mesa.getCapacidade(), horario, pessoas);
+        }
+
+        private Horario horario(String texto) {
+            // Reservas se concentram em poucos horários: cada um é convertido uma única vez
+            Horario horario = horarios.get(texto);
+            if (horario == null) {
+                horario = new Horario(LocalDateTime.parse(texto));
+                horarios.put(texto, horario);
+            }
+            return horario;
+        }
+    }
+
+    /**
+     * Horário convertido e formatado, compartilhado pelas linhas do mesmo horário
+     */
+    private static final class Horario {
+        private final LocalDateTime valor;
+        private final String formatado;
+
+        Horario(LocalDateTime valor) {
+            this.valor = valor;
+            this.formatado = valor.format(FORMATTER);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Log de consultas lentas para todo SQL executado pelas conexões do sistema
+ * As conexões entregues por Database são envolvidas por um proxy que mede cada
+ * execução (incluindo a leitura das linhas) e registra SQL, parâmetros, duração e
+ * quantidade de linhas das que passarem do limite configurado
+ * As consultas lentas vão para o logger "model.LogConsultasLentas" (java.util.logging):
+ * SQL, duração e linhas no nível WARNING; os parâmetros, que podem conter dados de
+ * clientes, só aparecem com o nível FINE habilitado
+ */
+public class LogConsultasLentas {
+    // Limite padrão; altere com -Drestaurante.consultaLentaMs ou setLimiteMs
+    private static volatile long limiteNs = TimeUnit.MILLISECONDS.toNanos(
+        Long.getLong("restaurante.consultaLentaMs", 100L));
+    private static final int MAX_REGISTROS = 200;
+    private static final Logger LOG = Logger.getLogger(LogConsultasLentas.class.getName());
+    private static final Deque<RegistroConsulta> recentes = new ArrayDeque<>();
+
+    private LogConsultasLentas() {}
+
+    /**
+     * Define a duração a partir da qual uma consulta é registrada
+     */
+    public static void setLimiteMs(long limiteMs) {
+        if (limiteMs < 0) {
+            throw new IllegalArgumentException("Limite não pode ser negativo");
+        }
+        limiteNs = TimeUnit.MILLISECONDS.toNanos(limiteMs);
+    }
+
+    public static long getLimiteMs() {
+        return TimeUnit.NANOSECONDS.toMillis(limiteNs);
+    }
+
+    /**
+     * Retorna as consultas lentas mais recentes (no máximo 200), da mais antiga para a mais nova
+     */
+    public static List<RegistroConsulta> getRecentes() {
+        synchronized (recentes) {
+            return new ArrayList<>(recentes);
+        }
+    }
+
+    /**
+     * Envolve a conexão para que suas instruções sejam medidas
+     */
+    public static Connection monitorar(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class }, new ConexaoMonitorada(conn));
+    }
+
+    private static void registrar(String sql, Map<Integer, Object> parametros, long inicioNs, long linhas) {
+        long duracaoNs = System.nanoTime() - inicioNs;
+        if (duracaoNs < limiteNs) {
+            return;
+        }
+        RegistroConsulta registro = new RegistroConsulta(sql, String.valueOf(parametros.values()),
+            TimeUnit.NANOSECONDS.toMillis(duracaoNs), linhas);
+        synchronized (recentes) {
+            if (recentes.size() == MAX_REGISTROS) {
+                recentes.removeFirst();
+            }
+            recentes.addLast(registro);
+        }
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine(registro.toString());
+        } else {
+            LOG.warning(registro.semParametros());
+        }
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Proxy da conexão: envolve as instruções criadas por ela
+     */
+    private static class ConexaoMonitorada implements InvocationHandler {
+        private final Connection conn;
+
+        ConexaoMonitorada(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object resultado = invocar(conn, metodo, args);
+            String nome = metodo.getName();
+            if (resultado instanceof PreparedStatement && nome.equals("prepareStatement")) {
+                return envolver(PreparedStatement.class, (Statement) resultado, (String) args[0]);
+            }
+            if (resultado instanceof Statement && nome.equals("createStatement")) {
+                return envolver(Statement.class, (Statement) resultado, null);
+            }
+            return resultado;
+        }
+
+        private static Object envolver(Class<?> tipo, Statement stmt, String sql) {
+            return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+                new InstrucaoMonitorada(stmt, sql));
+        }
+    }
+
+    /**
+     * Proxy de Statement/PreparedStatement: guarda os parâmetros e mede as execuções
+     */
+    private static class InstrucaoMonitorada implements InvocationHandler {
+        private final Statement stmt;
+        private final String sqlPreparado;
+        private final Map<Integer, Object> parametros = new TreeMap<>();
+
+        InstrucaoMonitorada(Statement stmt, String sqlPreparado) {
+            this.stmt = stmt;
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+
+            // setInt(1, ...), setString(2, ...) etc.
+            if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parametros.put((Integer) args[0], args[1]);
+                return invocar(stmt, metodo, args);
+            }
+            if (nome.equals("clearParameters")) {
+                parametros.clear();
+                return invocar(stmt, metodo, args);
+            }
+            if (!nome.startsWith("execute")) {
+                return invocar(stmt, metodo, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String
+                ? (String) args[0] : sqlPreparado;
+            Map<Integer, Object> copiaParametros = new TreeMap<>(parametros);
+            long inicio = System.nanoTime();
+            Object resultado = invocar(stmt, metodo, args);
+
+            if (resultado instanceof ResultSet) {
+                // As linhas são lidas sob demanda: a medição termina quando o ResultSet é fechado
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                    new ResultadoMonitorado((ResultSet) resultado, sql, copiaParametros, inicio));
+            }
+            long linhas = 0;
+            if (resultado instanceof Integer) {
+                linhas = (Integer) resultado;
+            } else if (resultado instanceof Long) {
+                linhas = (Long) resultado;
+            } else if (resultado instanceof int[]) {
+                for (int n : (int[]) resultado) {
+                    linhas += Math.max(n, 0);
+                }
+            }
+            registrar(sql, copiaParametros, inicio, linhas);
+            return resultado;
+        }
+    }
+
+    /**
+     * Proxy do ResultSet: conta as linhas lidas e registra ao ser fechado
+     */
+    private static class ResultadoMonitorado implements InvocationHandler {
+        private final ResultSet rs;
+        private final String sql;
+        private final Map<Integer, Object> parametros;
+        private final long inicio;
+        private long linhas;
+        private boolean registrado;
+
+        ResultadoMonitorado(ResultSet rs, String sql, Map<Integer, Object> parametros, long inicio) {
+            this.rs = rs;
+            this.sql = sql;
+            this.parametros = parametros;
+            this.inicio = inicio;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object resultado = invocar(rs, metodo, args);
+            String nome = metodo.getName();
+            if (nome.equals("next") && Boolean.TRUE.equals(resultado)) {
+                linhas++;
+            } else if (nome.equals("close") && !registrado) {
+                registrado = true;
+                registrar(sql, parametros, inicio, linhas);
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Consulta lenta registrada
+     */
+    public static class RegistroConsulta {
+        private final LocalDateTime instante = LocalDateTime.now();
+        private final String sql;
+        private final String parametros;
+        private final long duracaoMs;
+        private final long linhas;
+
+        RegistroConsulta(String sql, String parametros, long duracaoMs, long linhas) {
+            this.sql = sql;
+            this.parametros = parametros;
+            this.duracaoMs = duracaoMs;
+            this.linhas = linhas;
+        }
+
+        public LocalDateTime getInstante() { return instante; }
+        public String getSql() { return sql; }
+        public String getParametros() { return parametros; }
+        public long getDuracaoMs() { return duracaoMs; }
+        public long getLinhas() { return linhas; }
+
+        /**
+         * Descrição sem os valores dos parâmetros
+         */
+        public String semParametros() {
+            return String.format("[consulta lenta] %s %d ms, %d linhas: %s", instante, duracaoMs, linhas, sql);
+        }
+
+        @Override
+        public String toString() {
+            return semParametros() + " " + parametros;
+        }
+    }
+}
@@ -2,13 +2,50 @@ package view;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.sql.*;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
 import model.*;
+import controller.ReservaController;
 
 /**
  * Classe principal que representa a janela do sistema
  * Contém todas as abas de funcionalidades
  */
 public class MainFrame extends JFrame {
+    private static final Logger LOG = Logger.getLogger(MainFrame.class.getName());
+    
+    // Modo de início rápido: abas criadas na primeira seleção e banco preparado fora da EDT
+    // Desative com -Drestaurante.inicioRapido=false
+    private static final boolean INICIO_RAPIDO =
+        !"false".equalsIgnoreCase(System.getProperty("restaurante.inicioRapido"));
+    
+    // Modo demonstração/quiosque: tudo em memória, sem restaurante.db
+    // Ative com -Drestaurante.armazenamento=memoria
+    private static final boolean ARMAZENAMENTO_MEMORIA =
+        "memoria".equalsIgnoreCase(System.getProperty("restaurante.armazenamento"));
+    
+    // Instante em que a aplicação começou, para medir o tempo até o primeiro quadro
+    private static long inicioNs = System.nanoTime();
+    private boolean primeiroQuadroPintado;
+    
+    // No início rápido, as abas só são criadas depois que o banco estiver pronto (acesso só na EDT)
+    private JTabbedPane abas;
+    private boolean bancoPronto;
+    
+    // Backup online: 64 páginas por passo, 20 ms de pausa, mantém as últimas 24 cópias
+    private final BackupBanco backup = new BackupBanco(new File("backups"), 64, 20, 24);
+    
+    // Caixa de saída: lotes de 50, até 5 mensagens/s, 5 tentativas a partir de 1 minuto de espera
+    // (sem serviço real configurado, o gateway local só guarda as mensagens, sem exibi-las)
+    private final DespachanteNotificacoes despachante =
+        new DespachanteNotificacoes(new GatewayLocal(0, 0, false), 50, 5, 5, Duration.ofMinutes(1));
     
     /**
      * Construtor que inicializa a janela principal
@@ -20,9 +57,22 @@ public class MainFrame extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null); // Centraliza na tela
         
+        if (ARMAZENAMENTO_MEMORIA) {
+            Repositorios.usarMemoria();
+        }
+        
         // Inicializa a interface e carrega dados iniciais
         initUI();
         carregarDadosIniciais();
+        
+        // Backups periódicos sem fechar a aplicação, e sob demanda pelo menu Banco
+        if (!ARMAZENAMENTO_MEMORIA) {
+            criarMenuBackup();
+            backup.agendar(1, TimeUnit.HOURS);
+        }
+        
+        // Confirmações e lembretes enviados em segundo plano
+        despachante.agendar(30, TimeUnit.SECONDS);
     }
     
     /**
@@ -31,53 +81,325 @@ public class MainFrame extends JFrame {
     private void initUI() {
         // Cria um painel com abas para organizar as funcionalidades
         JTabbedPane tabbedPane = new JTabbedPane();
+        abas = tabbedPane;
         
         // Adiciona as abas ao painel principal
-        tabbedPane.addTab("Reservas", new ReservaPanel());
-        tabbedPane.addTab("Cancelar Reservas", new CancelarReservaPanel());
-        tabbedPane.addTab("Listar Reservas", new ListarReservasPanel());
-        tabbedPane.addTab("Mesas Disponíveis", new MesasDisponiveisPanel());
-        tabbedPane.addTab("Cardápio", new CardapioPanel());
-        tabbedPane.addTab("Pedidos", new PedidosPanel());
+        adicionarAba(tabbedPane, "Reservas", ReservaPanel::new);
+        adicionarAba(tabbedPane, "Cancelar Reservas", CancelarReservaPanel::new);
+        adicionarAba(tabbedPane, "Listar Reservas", ListarReservasPanel::new);
+        adicionarAba(tabbedPane, "Mesas Disponíveis", MesasDisponiveisPanel::new);
+        adicionarAba(tabbedPane, "Cardápio", CardapioPanel::new);
+        adicionarAba(tabbedPane, "Pedidos", PedidosPanel::new);
+        
+        if (INICIO_RAPIDO) {
+            // Cria a aba na primeira vez que for selecionada; a primeira aba é criada
+            // quando o banco termina de ser preparado (ver carregarDadosIniciais)
+            tabbedPane.addChangeListener(e -> criarAbaSelecionada(tabbedPane));
+        }
         
         // Adiciona o painel de abas à janela
         add(tabbedPane);
     }
     
+    /**
+     * Adiciona uma aba; no início rápido, apenas um contêiner com um aviso é criado
+     * e o painel real fica guardado para ser criado na primeira seleção
+     */
+    private void adicionarAba(JTabbedPane tabbedPane, String titulo, Supplier<JComponent> fabrica) {
+        if (!INICIO_RAPIDO) {
+            tabbedPane.addTab(titulo, fabrica.get());
+            return;
+        }
+        JPanel conteiner = new JPanel(new BorderLayout());
+        conteiner.add(new JLabel("Preparando o banco de dados...", SwingConstants.CENTER), BorderLayout.CENTER);
+        conteiner.putClientProperty(Supplier.class, fabrica);
+        tabbedPane.addTab(titulo, conteiner);
+    }
+    
+    /**
+     * Cria o painel da aba selecionada, se ainda não foi criado
+     * Antes de o banco estar pronto nenhum painel é criado, para que não seja possível
+     * reservar ou consultar enquanto tabelas, diário e índice de clientes são preparados
+     */
+    @SuppressWarnings("unchecked")
+    private void criarAbaSelecionada(JTabbedPane tabbedPane) {
+        if (!bancoPronto) {
+            return;
+        }
+        Component selecionado = tabbedPane.getSelectedComponent();
+        if (!(selecionado instanceof JPanel)) {
+            return;
+        }
+        JPanel conteiner = (JPanel) selecionado;
+        Supplier<JComponent> fabrica = (Supplier<JComponent>) conteiner.getClientProperty(Supplier.class);
+        if (fabrica == null) {
+            return;
+        }
+        conteiner.putClientProperty(Supplier.class, null);
+        conteiner.removeAll();
+        conteiner.add(fabrica.get(), BorderLayout.CENTER);
+        conteiner.revalidate();
+        conteiner.repaint();
+    }
+    
+    /**
+     * Cria o menu Banco, com o backup imediato e o resultado do último backup
+     */
+    private void criarMenuBackup() {
+        JMenuBar barra = new JMenuBar();
+        JMenu menuBanco = new JMenu("Banco");
+        
+        JMenuItem backupAgora = new JMenuItem("Fazer backup agora");
+        backupAgora.addActionListener(e -> fazerBackupAgora(backupAgora));
+        menuBanco.add(backupAgora);
+        
+        JMenuItem ultimoBackup = new JMenuItem("Último backup");
+        ultimoBackup.addActionListener(e -> mostrarUltimoBackup());
+        menuBanco.add(ultimoBackup);
+        
+        barra.add(menuBanco);
+        setJMenuBar(barra);
+    }
+    
+    /**
+     * Solicita um backup imediato e informa o resultado quando terminar,
+     * sem bloquear a interface durante a cópia
+     */
+    private void fazerBackupAgora(JMenuItem item) {
+        item.setEnabled(false);
+        Future<BackupBanco.ResultadoBackup> pedido = backup.executarAgora();
+        
+        new SwingWorker<BackupBanco.ResultadoBackup, Void>() {
+            @Override
+            protected BackupBanco.ResultadoBackup doInBackground() throws Exception {
+                return pedido.get();
+            }
+            
+            @Override
+            protected void done() {
+                item.setEnabled(true);
+                try {
+                    JOptionPane.showMessageDialog(MainFrame.this, get().toString(),
+                        "Backup concluído", JOptionPane.INFORMATION_MESSAGE);
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause() instanceof ExecutionException ? e.getCause().getCause() : e.getCause();
+                    JOptionPane.showMessageDialog(MainFrame.this, "Erro no backup: " + causa.getMessage(),
+                        "Erro", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+    
+    /**
+     * Exibe o resultado do último backup concluído (agendado ou sob demanda)
+     */
+    private void mostrarUltimoBackup() {
+        BackupBanco.ResultadoBackup ultimo = backup.getUltimoResultado();
+        JOptionPane.showMessageDialog(this,
+            ultimo == null ? "Nenhum backup concluído desde que a aplicação foi aberta" : ultimo.toString(),
+            "Último backup", JOptionPane.INFORMATION_MESSAGE);
+    }
+    
     /**
      * Carrega dados iniciais no banco de dados (mesas)
+     * No início rápido, o banco é preparado em segundo plano e a janela é exibida antes
      */
     private void carregarDadosIniciais() {
-        try {
-            // Verifica se já existem mesas cadastradas
-            if (Mesa.buscarPorNumero(1) == null) {
-                // Cria mesas regulares (1 a 8)
-                for (int i = 1; i <= 8; i++) {
-                    Mesa mesa = new Mesa(i, 4); // Mesas para 4 pessoas
-                    mesa.salvar();
+        if (!INICIO_RAPIDO) {
+            try {
+                concluirDadosIniciais(prepararBanco());
+            } catch (Exception e) {
+                erroDadosIniciais(e);
+            }
+            return;
+        }
+        
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                return prepararBanco();
+            }
+            
+            @Override
+            protected void done() {
+                // Libera as abas mesmo em caso de erro, que é informado logo abaixo
+                bancoPronto = true;
+                criarAbaSelecionada(abas);
+                try {
+                    concluirDadosIniciais(get());
+                } catch (ExecutionException e) {
+                    erroDadosIniciais(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 }
-                
-                // Cria mesas VIP (9 e 10)
-                MesaVIP mesa9 = new MesaVIP(9, 6, true);  // Mesa grande com vista
-                MesaVIP mesa10 = new MesaVIP(10, 4, false); // Mesa padrão sem vista
-                mesa9.salvar();
-                mesa10.salvar();
-                
-                JOptionPane.showMessageDialog(this, 
-                    "Dados iniciais (mesas) criados com sucesso!", 
-                    "Informação", JOptionPane.INFORMATION_MESSAGE);
             }
-        } catch (SQLException e) {
+        }.execute();
+    }
+    
+    /**
+     * Cria as tabelas, cadastra as mesas iniciais e ativa o diário de escrita
+     * @return true se as mesas iniciais foram criadas agora
+     */
+    private boolean prepararBanco() throws Exception {
+        if (ARMAZENAMENTO_MEMORIA) {
+            criarMesasIniciaisEmMemoria();
+            criarAdjacenciasIniciais();
+            IndiceClientes.getInstance().carregar(Cliente.listarTodos());
+            return false;
+        }
+        
+        long inicio = System.nanoTime();
+        // Esquema, mesas e adjacências entram juntos ou não entram
+        boolean criadas = Database.inicializar(conn -> {
+            boolean novas = criarMesasIniciais(conn);
+            criarAdjacenciasIniciais();
+            return novas;
+        });
+        ativarDiarioEscrita();
+        arquivarReservasAntigas();
+        ReservaController.limparChavesExpiradas();
+        IndiceClientes.getInstance().carregar(Cliente.listarTodos());
+        LOG.info(String.format("Banco pronto em %d ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)));
+        return criadas;
+    }
+    
+    /**
+     * Cadastra as mesas iniciais, se ainda não existirem, na transação de inicialização do banco
+     * @return true se as mesas foram criadas
+     */
+    private boolean criarMesasIniciais(Connection conn) throws SQLException {
+        // Verifica se já existem mesas cadastradas
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM mesas WHERE numero = 1")) {
+            if (rs.next()) {
+                return false;
+            }
+        }
+        
+        String sql = "INSERT OR IGNORE INTO mesas (numero, capacidade, ocupada, vip, vista_exclusiva) " +
+                     "VALUES (?, ?, 0, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            // Mesas regulares (1 a 8) para 4 pessoas
+            for (int i = 1; i <= 8; i++) {
+                adicionarMesaInicial(stmt, i, 4, false, null);
+            }
+            
+            // Mesas VIP: 9 grande com vista e 10 padrão sem vista
+            adicionarMesaInicial(stmt, 9, 6, true, true);
+            adicionarMesaInicial(stmt, 10, 4, true, false);
+            stmt.executeBatch();
+        }
+        return true;
+    }
+    
+    /**
+     * Cadastra as mesas iniciais no armazenamento em memória
+     */
+    private void criarMesasIniciaisEmMemoria() throws SQLException {
+        for (int i = 1; i <= 8; i++) {
+            new Mesa(i, 4).salvar();
+        }
+        new Mesa(9, 6).salvar();
+        new Mesa(10, 4).salvar();
+    }
+    
+    /**
+     * Cadastra quais mesas iniciais podem ser juntadas, se nenhuma adjacência existir
+     * Mesas regulares em duas fileiras (1 a 4 e 5 a 8) e as VIP (9 e 10) lado a lado
+     */
+    private void criarAdjacenciasIniciais() throws SQLException {
+        MesaRepositorio mesas = Repositorios.mesas();
+        if (!mesas.listarAdjacencias().isEmpty()) {
+            return;
+        }
+        for (int i = 1; i <= 8; i++) {
+            if (i % 4 != 0) {
+                mesas.salvarAdjacencia(i, i + 1);
+            }
+            if (i <= 4) {
+                mesas.salvarAdjacencia(i, i + 4);
+            }
+        }
+        mesas.salvarAdjacencia(9, 10);
+    }
+    
+    private static void adicionarMesaInicial(PreparedStatement stmt, int numero, int capacidade,
+                                             boolean vip, Boolean vistaExclusiva) throws SQLException {
+        stmt.setInt(1, numero);
+        stmt.setInt(2, capacidade);
+        stmt.setBoolean(3, vip);
+        if (vistaExclusiva == null) {
+            stmt.setNull(4, Types.BOOLEAN);
+        } else {
+            stmt.setBoolean(4, vistaExclusiva);
+        }
+        stmt.addBatch();
+    }
+    
+    private void concluirDadosIniciais(boolean mesasCriadas) {
+        if (mesasCriadas) {
             JOptionPane.showMessageDialog(this, 
-                "Erro ao carregar dados iniciais: " + e.getMessage(), 
-                "Erro", JOptionPane.ERROR_MESSAGE);
+                "Dados iniciais (mesas) criados com sucesso!", 
+                "Informação", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+    
+    private void erroDadosIniciais(Throwable e) {
+        JOptionPane.showMessageDialog(this, 
+            "Erro ao carregar dados iniciais: " + e.getMessage(), 
+            "Erro", JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Informa o tempo entre o início da aplicação e a primeira pintura da janela
+     */
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (!primeiroQuadroPintado) {
+            primeiroQuadroPintado = true;
+            LOG.info(String.format("Tempo até o primeiro quadro: %d ms (início rápido: %s)",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNs), INICIO_RAPIDO ? "sim" : "não"));
+        }
+    }
+    
+    /**
+     * Move para o arquivo as reservas com mais de -Drestaurante.arquivo.dias dias (padrão 30)
+     */
+    private void arquivarReservasAntigas() throws SQLException {
+        int dias = Integer.getInteger("restaurante.arquivo.dias", 30);
+        int arquivadas = new ArquivamentoReservas(Duration.ofDays(dias), 500).executar();
+        if (arquivadas > 0) {
+            LOG.info(arquivadas + " reservas antigas arquivadas");
         }
     }
     
+    /**
+     * Ativa o diário de escrita quando configurado com -Drestaurante.diario=<política>
+     * (FSYNC_POR_ESCRITA, FSYNC_EM_GRUPO ou SEM_FSYNC); lote e atraso em
+     * -Drestaurante.diario.lote e -Drestaurante.diario.atrasoMs
+     */
+    private void ativarDiarioEscrita() throws SQLException, IOException {
+        String politica = System.getProperty("restaurante.diario");
+        if (politica == null || politica.isBlank()) {
+            return;
+        }
+        DiarioEscrita diario = new DiarioEscrita(
+            new File("restaurante.diario"),
+            DiarioEscrita.PoliticaDurabilidade.valueOf(politica.trim().toUpperCase()),
+            Integer.getInteger("restaurante.diario.lote", 256),
+            Long.getLong("restaurante.diario.atrasoMs", 5L));
+        Database.getInstance().ativarDiario(diario);
+    }
+    
     /**
      * Método main para iniciar a aplicação
      */
     public static void main(String[] args) {
+        inicioNs = System.nanoTime();
+        
         // Garante que a interface seja criada na thread de eventos do Swing
         SwingUtilities.invokeLater(() -> {
             try {
@@ -0,0 +1,292 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Mapa concorrente com chaves int primitivas (sem Integer)
+ * Dividido em segmentos independentes, cada um com endereçamento aberto em arrays
+ * e seu próprio lock, para que operações em chaves de segmentos diferentes não disputem
+ */
+public class MapaInt<V> {
+    private static final int SEGMENTOS = 16;
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    private final Segmento<V>[] segmentos;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public MapaInt() {
+        segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento<>();
+        }
+    }
+
+    /**
+     * Retorna o valor associado à chave, ou null
+     */
+    public V get(int chave) {
+        int h = espalhar(chave);
+        return segmento(h).get(chave, h);
+    }
+
+    /**
+     * Associa o valor à chave
+     * @return Valor anterior, ou null
+     */
+    public V put(int chave, V valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("Valor não pode ser nulo");
+        }
+        int h = espalhar(chave);
+        return segmento(h).put(chave, h, valor, false);
+    }
+
+    /**
+     * Associa o valor à chave apenas se ela ainda não existir
+     * @return Valor existente, ou null se o novo valor foi associado
+     */
+    public V putIfAbsent(int chave, V valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("Valor não pode ser nulo");
+        }
+        int h = espalhar(chave);
+        return segmento(h).put(chave, h, valor, true);
+    }
+
+    /**
+     * Retorna o valor da chave, criando-o com a função se ainda não existir
+     */
+    public V computeIfAbsent(int chave, IntFunction<V> criar) {
+        int h = espalhar(chave);
+        return segmento(h).computeIfAbsent(chave, h, criar);
+    }
+
+    /**
+     * Substitui o valor da chave pelo resultado da função, com o segmento travado
+     * (leitura e escrita atômicas); se a chave não existir, nada é feito
+     * @param alterar Recebe o valor atual e devolve o novo, ou null para remover a chave
+     * @return Novo valor, ou null
+     */
+    public V computeIfPresent(int chave, UnaryOperator<V> alterar) {
+        int h = espalhar(chave);
+        return segmento(h).computeIfPresent(chave, h, alterar);
+    }
+
+    /**
+     * Remove a chave
+     * @return Valor removido, ou null
+     */
+    public V remove(int chave) {
+        int h = espalhar(chave);
+        return segmento(h).remove(chave, h);
+    }
+
+    public boolean containsKey(int chave) {
+        return get(chave) != null;
+    }
+
+    public int size() {
+        int total = 0;
+        for (Segmento<V> s : segmentos) {
+            total += s.tamanho();
+        }
+        return total;
+    }
+
+    /**
+     * Cópia dos valores no momento da chamada (cada segmento é copiado de forma consistente)
+     */
+    public List<V> valores() {
+        List<V> lista = new ArrayList<>(size());
+        for (Segmento<V> s : segmentos) {
+            s.copiarValores(lista);
+        }
+        return lista;
+    }
+
+    public void clear() {
+        for (Segmento<V> s : segmentos) {
+            s.limpar();
+        }
+    }
+
+    private Segmento<V> segmento(int h) {
+        return segmentos[h >>> 28];
+    }
+
+    /**
+     * Espalha os bits da chave (finalizador do MurmurHash3) para que chaves sequenciais
+     * não caiam todas no mesmo segmento
+     */
+    private static int espalhar(int chave) {
+        int h = chave;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Tabela de endereçamento aberto (sondagem linear) protegida pelo próprio monitor
+     */
+    private static class Segmento<V> {
+        private static final byte LIVRE = 0;
+        private static final byte USADO = 1;
+        private static final byte REMOVIDO = 2;
+
+        private int[] chaves = new int[CAPACIDADE_INICIAL];
+        private Object[] valores = new Object[CAPACIDADE_INICIAL];
+        private byte[] estados = new byte[CAPACIDADE_INICIAL];
+        private int usados;
+        private int removidos;
+
+        @SuppressWarnings("unchecked")
+        synchronized V get(int chave, int h) {
+            int i = localizar(chave, h);
+            return i < 0 ? null : (V) valores[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V put(int chave, int h, V valor, boolean somenteSeAusente) {
+            int i = localizar(chave, h);
+            if (i >= 0) {
+                V anterior = (V) valores[i];
+                if (!somenteSeAusente) {
+                    valores[i] = valor;
+                }
+                return anterior;
+            }
+            inserir(chave, h, valor);
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V computeIfAbsent(int chave, int h, IntFunction<V> criar) {
+            int i = localizar(chave, h);
+            if (i >= 0) {
+                return (V) valores[i];
+            }
+            V valor = criar.apply(chave);
+            if (valor != null) {
+                inserir(chave, h, valor);
+            }
+            return valor;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V computeIfPresent(int chave, int h, UnaryOperator<V> alterar) {
+            int i = localizar(chave, h);
+            if (i < 0) {
+                return null;
+            }
+            V valor = alterar.apply((V) valores[i]);
+            if (valor == null) {
+                removerPosicao(i);
+            } else {
+                valores[i] = valor;
+            }
+            return valor;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V remove(int chave, int h) {
+            int i = localizar(chave, h);
+            if (i < 0) {
+                return null;
+            }
+            V anterior = (V) valores[i];
+            removerPosicao(i);
+            return anterior;
+        }
+
+        synchronized int tamanho() {
+            return usados;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void copiarValores(List<V> destino) {
+            for (int i = 0; i < estados.length; i++) {
+                if (estados[i] == USADO) {
+                    destino.add((V) valores[i]);
+                }
+            }
+        }
+
+        synchronized void limpar() {
+            chaves = new int[CAPACIDADE_INICIAL];
+            valores = new Object[CAPACIDADE_INICIAL];
+            estados = new byte[CAPACIDADE_INICIAL];
+            usados = 0;
+            removidos = 0;
+        }
+
+        private int localizar(int chave, int h) {
+            int mascara = chaves.length - 1;
+            for (int i = h & mascara, n = 0; n < chaves.length; i = (i + 1) & mascara, n++) {
+                if (estados[i] == LIVRE) {
+                    return -1;
+                }
+                if (estados[i] == USADO && chaves[i] == chave) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void removerPosicao(int i) {
+            valores[i] = null;
+            estados[i] = REMOVIDO;
+            usados--;
+            removidos++;
+        }
+
+        private void inserir(int chave, int h, Object valor) {
+            // Mantém no máximo 75% das posições ocupadas (contando as removidas)
+            if ((usados + removidos + 1) * 4 > chaves.length * 3) {
+                redimensionar(usados * 2 + 1 > chaves.length / 2 ? chaves.length * 2 : chaves.length);
+            }
+            int mascara = chaves.length - 1;
+            int i = h & mascara;
+            while (estados[i] == USADO) {
+                i = (i + 1) & mascara;
+            }
+            if (estados[i] == REMOVIDO) {
+                removidos--;
+            }
+            chaves[i] = chave;
+            valores[i] = valor;
+            estados[i] = USADO;
+            usados++;
+        }
+
+        private void redimensionar(int capacidade) {
+            int[] chavesAntigas = chaves;
+            Object[] valoresAntigos = valores;
+            byte[] estadosAntigos = estados;
+            chaves = new int[capacidade];
+            valores = new Object[capacidade];
+            estados = new byte[capacidade];
+            usados = 0;
+            removidos = 0;
+            for (int i = 0; i < estadosAntigos.length; i++) {
+                if (estadosAntigos[i] == USADO) {
+                    int chave = chavesAntigas[i];
+                    int mascara = capacidade - 1;
+                    int j = espalhar(chave) & mascara;
+                    while (estados[j] == USADO) {
+                        j = (j + 1) & mascara;
+                    }
+                    chaves[j] = chave;
+                    valores[j] = valoresAntigos[i];
+                    estados[j] = USADO;
+                    usados++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package model;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compara, por linha, a listagem com objetos completos (Reserva, Cliente e Mesa)
+ * com a listagem em linhas somente leitura (LinhaReserva): bytes alocados, memória
+ * retida pela lista pronta e tempo. Execute o main; ele usa um banco temporário
+ * populado como o da verificação de planos.
+ * A memória retida é contada pelo layout dos objetos alcançáveis a partir das linhas
+ * (cada objeto uma vez, então instâncias compartilhadas contam uma só vez), com o
+ * layout da JVM de 64 bits com ponteiros comprimidos: não depende do coletor nem de System.gc()
+ */
+public class MedicaoListagem {
+    private static final int REPETICOES = 20;
+    // Layout com ponteiros comprimidos (heap < 32 GB): cabeçalho de objeto e de array, referência
+    private static final int CABECALHO_OBJETO = 12;
+    private static final int CABECALHO_ARRAY = 16;
+    private static final int REFERENCIA = 4;
+    private static final Map<Class<?>, Long> TAMANHOS = new HashMap<>();
+
+    private MedicaoListagem() {}
+
+    /**
+     * Leitura de uma listagem a partir do ResultSet
+     */
+    private interface Leitura {
+        List<?> ler(ResultSet rs) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        File diretorio = Files.createTempDirectory("listagem").toFile();
+        File principal = new File(diretorio, "listagem.db");
+        File arquivo = new File(diretorio, "listagem_arquivo.db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + principal.getAbsolutePath())) {
+            Database.anexarArquivo(conn, arquivo.getAbsolutePath());
+            Database.criarTabelas(conn);
+            VerificadorPlanos.popular(conn);
+
+            String sql = SQLiteReservaRepositorio.SQL_LISTAGEM + SQLiteReservaRepositorio.ORDENACAO;
+            medir(conn, sql, "Reserva + Cliente + Mesa", SQLiteReservaRepositorio::lerReservas);
+            medir(conn, sql, "LinhaReserva", SQLiteReservaRepositorio::lerLinhas);
+        } finally {
+            principal.delete();
+            arquivo.delete();
+            diretorio.delete();
+        }
+    }
+
+    private static void medir(Connection conn, String sql, String nome, Leitura leitura) throws SQLException {
+        // Aquecimento: deixa o JIT compilar os dois caminhos antes da medição
+        for (int i = 0; i < REPETICOES; i++) {
+            executar(conn, sql, leitura);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long alocadoAntes = threads.getThreadAllocatedBytes(thread);
+        long inicio = System.nanoTime();
+        int linhas = 0;
+        for (int i = 0; i < REPETICOES; i++) {
+            linhas = executar(conn, sql, leitura).size();
+        }
+        long duracaoNs = (System.nanoTime() - inicio) / REPETICOES;
+        long alocado = (threads.getThreadAllocatedBytes(thread) - alocadoAntes) / REPETICOES;
+
+        // Memória retida pelas linhas (sem o array interno da lista, igual nos dois caminhos)
+        List<?> retida = executar(conn, sql, leitura);
+        long retido = bytesRetidos(retida);
+
+        System.out.printf("%-26s %6d linhas  %7.2f ms  %6d bytes alocados/linha  %6d bytes retidos/linha%n",
+            nome, linhas, duracaoNs / 1e6, alocado / Math.max(linhas, 1), retido / Math.max(retida.size(), 1));
+    }
+
+    private static List<?> executar(Connection conn, String sql, Leitura leitura) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return leitura.ler(rs);
+        }
+    }
+
+    /**
+     * Soma o tamanho de todos os objetos alcançáveis a partir das linhas, cada um uma vez
+     * Classes da aplicação são percorridas campo a campo; das classes do JDK, só String e
+     * LocalDateTime (as que as linhas usam) têm as partes internas contadas
+     */
+    static long bytesRetidos(List<?> linhas) {
+        Set<Object> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pendentes = new ArrayDeque<>(linhas);
+        long total = 0;
+        while (!pendentes.isEmpty()) {
+            Object objeto = pendentes.pop();
+            if (objeto instanceof Enum || !vistos.add(objeto)) {
+                continue;
+            }
+            Class<?> classe = objeto.getClass();
+            if (objeto instanceof String) {
+                // String + byte[] (um byte por caractere em Latin-1, dois nos demais)
+                String texto = (String) objeto;
+                boolean latin1 = texto.chars().allMatch(c -> c < 256);
+                total += tamanho(classe) + alinhar(CABECALHO_ARRAY + (long) texto.length() * (latin1 ? 1 : 2));
+            } else if (objeto instanceof LocalDateTime) {
+                // LocalDateTime + LocalDate + LocalTime, que só têm campos primitivos
+                LocalDateTime dataHora = (LocalDateTime) objeto;
+                total += tamanho(classe);
+                pendentes.push(dataHora.toLocalDate());
+                pendentes.push(dataHora.toLocalTime());
+            } else if (classe.isArray()) {
+                int comprimento = Array.getLength(objeto);
+                Class<?> componente = classe.getComponentType();
+                total += alinhar(CABECALHO_ARRAY + (long) comprimento * tamanhoCampo(componente));
+                if (!componente.isPrimitive()) {
+                    for (int i = 0; i < comprimento; i++) {
+                        Object elemento = Array.get(objeto, i);
+                        if (elemento != null) {
+                            pendentes.push(elemento);
+                        }
+                    }
+                }
+            } else {
+                total += tamanho(classe);
+                if (!classe.getModule().isNamed()) {
+                    pendentes.addAll(referencias(objeto));
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Tamanho de uma instância (cabeçalho e campos da classe e das superclasses, alinhado a 8 bytes)
+     */
+    private static long tamanho(Class<?> classe) {
+        return TAMANHOS.computeIfAbsent(classe, c -> {
+            long bytes = CABECALHO_OBJETO;
+            for (Class<?> atual = c; atual != null; atual = atual.getSuperclass()) {
+                for (Field campo : atual.getDeclaredFields()) {
+                    if (!Modifier.isStatic(campo.getModifiers())) {
+                        bytes += tamanhoCampo(campo.getType());
+                    }
+                }
+            }
+            return alinhar(bytes);
+        });
+    }
+
+    private static int tamanhoCampo(Class<?> tipo) {
+        if (tipo == long.class || tipo == double.class) {
+            return 8;
+        }
+        if (tipo == int.class || tipo == float.class) {
+            return 4;
+        }
+        if (tipo == short.class || tipo == char.class) {
+            return 2;
+        }
+        if (tipo == byte.class || tipo == boolean.class) {
+            return 1;
+        }
+        return REFERENCIA;
+    }
+
+    private static long alinhar(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Objetos referenciados pelos campos de instância (classes da aplicação)
+     */
+    private static List<Object> referencias(Object objeto) {
+        List<Object> referencias = new ArrayList<>();
+        for (Class<?> atual = objeto.getClass(); atual != null; atual = atual.getSuperclass()) {
+            for (Field campo : atual.getDeclaredFields()) {
+                if (Modifier.isStatic(campo.getModifiers()) || campo.getType().isPrimitive()) {
+                    continue;
+                }
+                try {
+                    campo.setAccessible(true);
+                    Object valor = campo.get(objeto);
+                    if (valor != null) {
+                        referencias.add(valor);
+                    }
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return referencias;
+    }
+}
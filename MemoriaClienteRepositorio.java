@@ -0,0 +1,42 @@
+package model;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repositório de clientes totalmente em memória
+ * Guarda cópias dos objetos, para que alterações feitas por quem chamou não
+ * mudem o que está armazenado (mesmo comportamento do banco de dados)
+ */
+public class MemoriaClienteRepositorio implements ClienteRepositorio {
+    private final MapaInt<Cliente> clientes = new MapaInt<>();
+    private final AtomicInteger ultimoId = new AtomicInteger();
+
+    @Override
+    public void salvar(Cliente cliente) {
+        int id = ultimoId.incrementAndGet();
+        clientes.put(id, copiar(cliente, id));
+        cliente.setId(id);
+    }
+
+    @Override
+    public Cliente buscarPorId(int id) {
+        Cliente c = clientes.get(id);
+        return c == null ? null : copiar(c, id);
+    }
+
+    @Override
+    public List<Cliente> listarTodos() {
+        List<Cliente> lista = clientes.valores();
+        lista.replaceAll(c -> copiar(c, c.getId()));
+        lista.sort(Comparator.comparing(Cliente::getNome));
+        return lista;
+    }
+
+    private static Cliente copiar(Cliente origem, int id) {
+        Cliente c = new Cliente(origem.getNome(), origem.getTelefone());
+        c.setId(id);
+        return c;
+    }
+}
@@ -0,0 +1,83 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositório de mesas totalmente em memória
+ * Guarda cópias dos objetos, como o repositório em banco de dados
+ */
+public class MemoriaMesaRepositorio implements MesaRepositorio {
+    private final MapaInt<Mesa> mesas = new MapaInt<>();
+    // Pares de mesas adjacentes, codificados como (menor << 32) | maior
+    private final Set<Long> adjacencias = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void salvar(Mesa mesa) {
+        mesas.put(mesa.getNumero(), copiar(mesa, mesa.isOcupada()));
+    }
+
+    @Override
+    public Mesa buscarPorNumero(int numero) {
+        Mesa m = mesas.get(numero);
+        return m == null ? null : copiar(m, m.isOcupada());
+    }
+
+    @Override
+    public List<Mesa> listarTodas() {
+        List<Mesa> lista = mesas.valores();
+        lista.replaceAll(m -> copiar(m, m.isOcupada()));
+        lista.sort(Comparator.comparingInt(Mesa::getNumero));
+        return lista;
+    }
+
+    @Override
+    public List<Mesa> listarDisponiveis() {
+        List<Mesa> lista = listarTodas();
+        lista.removeIf(Mesa::isOcupada);
+        return lista;
+    }
+
+    @Override
+    public void salvarAdjacencia(int mesaA, int mesaB) {
+        if (mesaA == mesaB) {
+            throw new IllegalArgumentException("Uma mesa não pode ser adjacente a ela mesma");
+        }
+        adjacencias.add(((long) Math.min(mesaA, mesaB) << 32) | Math.max(mesaA, mesaB));
+    }
+
+    @Override
+    public List<int[]> listarAdjacencias() {
+        List<int[]> pares = new ArrayList<>(adjacencias.size());
+        for (long par : adjacencias) {
+            pares.add(new int[] { (int) (par >>> 32), (int) par });
+        }
+        return pares;
+    }
+
+    /**
+     * Marca a mesa como ocupada, se ela existir
+     * A leitura e a troca são atômicas: um salvar concorrente não é desfeito
+     */
+    void ocupar(int numero) {
+        mesas.computeIfPresent(numero, m -> m.isOcupada() ? m : copiar(m, true));
+    }
+
+    /**
+     * Marca a mesa como livre, se ela existir
+     */
+    void liberar(int numero) {
+        mesas.computeIfPresent(numero, m -> m.isOcupada() ? copiar(m, false) : m);
+    }
+
+    private static Mesa copiar(Mesa origem, boolean ocupada) {
+        Mesa m = new Mesa();
+        m.setNumero(origem.getNumero());
+        m.setCapacidade(origem.getCapacidade());
+        m.setOcupada(ocupada);
+        return m;
+    }
+}
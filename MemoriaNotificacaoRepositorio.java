@@ -0,0 +1,104 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caixa de saída de notificações totalmente em memória
+ * Guarda cópias dos objetos, como o repositório em banco de dados
+ */
+public class MemoriaNotificacaoRepositorio implements NotificacaoRepositorio {
+    private final MemoriaReservaRepositorio reservas;
+    private final MapaInt<Notificacao> notificacoes = new MapaInt<>();
+    private final AtomicInteger ultimoId = new AtomicInteger();
+
+    public MemoriaNotificacaoRepositorio(MemoriaReservaRepositorio reservas) {
+        this.reservas = reservas;
+    }
+
+    @Override
+    public void registrar(Notificacao notificacao) {
+        int id = ultimoId.incrementAndGet();
+        notificacao.setId(id);
+        notificacoes.put(id, copiar(notificacao));
+    }
+
+    @Override
+    public List<Notificacao> buscarProntas(LocalDateTime agora, int limite) {
+        List<Notificacao> prontas = notificacoes.valores();
+        prontas.removeIf(n -> n.getStatus() != Notificacao.Status.PENDENTE || n.getEnviarEm().isAfter(agora));
+        prontas.sort(Comparator.comparing(Notificacao::getEnviarEm).thenComparingInt(Notificacao::getId));
+        if (prontas.size() > limite) {
+            prontas = prontas.subList(0, limite);
+        }
+        prontas.replaceAll(n -> {
+            Notificacao copia = copiar(n);
+            copia.setReservaAtiva(n.getReservaId() == 0 || reservas.existe(n.getReservaId()));
+            return copia;
+        });
+        return prontas;
+    }
+
+    @Override
+    public synchronized void atualizar(List<Notificacao> lote) {
+        for (Notificacao n : lote) {
+            if (notificacoes.containsKey(n.getId())) {
+                notificacoes.put(n.getId(), copiar(n));
+            }
+        }
+    }
+
+    /**
+     * Descarta as mensagens pendentes da reserva cancelada (mesa e horário)
+     */
+    synchronized void descartarPendentes(int mesaNumero, LocalDateTime horario) {
+        for (Notificacao n : notificacoes.valores()) {
+            if (n.getStatus() == Notificacao.Status.PENDENTE && n.getMesaNumero() == mesaNumero
+                    && horario.equals(n.getHorarioReserva())) {
+                descartar(n);
+            }
+        }
+    }
+
+    /**
+     * Descarta as mensagens pendentes das reservas do dia
+     */
+    synchronized void descartarPendentesDoDia(LocalDate dia) {
+        for (Notificacao n : notificacoes.valores()) {
+            if (n.getStatus() == Notificacao.Status.PENDENTE && n.getHorarioReserva() != null
+                    && n.getHorarioReserva().toLocalDate().equals(dia)) {
+                descartar(n);
+            }
+        }
+    }
+
+    @Override
+    public List<Notificacao> listarFalhas() {
+        List<Notificacao> falhas = notificacoes.valores();
+        falhas.removeIf(n -> n.getStatus() != Notificacao.Status.FALHA);
+        falhas.sort(Comparator.comparing(Notificacao::getEnviarEm).thenComparingInt(Notificacao::getId));
+        falhas.replaceAll(MemoriaNotificacaoRepositorio::copiar);
+        return falhas;
+    }
+
+    private void descartar(Notificacao guardada) {
+        Notificacao n = copiar(guardada);
+        n.setStatus(Notificacao.Status.DESCARTADA);
+        notificacoes.put(n.getId(), n);
+    }
+
+    private static Notificacao copiar(Notificacao origem) {
+        Notificacao n = new Notificacao(origem.getReservaId(), origem.getTipo(), origem.getTelefone(),
+            origem.getMensagem(), origem.getEnviarEm());
+        n.setId(origem.getId());
+        n.setMesaNumero(origem.getMesaNumero());
+        n.setHorarioReserva(origem.getHorarioReserva());
+        n.setTentativas(origem.getTentativas());
+        n.setStatus(origem.getStatus());
+        n.setUltimoErro(origem.getUltimoErro());
+        return n;
+    }
+}
@@ -0,0 +1,234 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repositório de reservas totalmente em memória
+ * As reservas ficam em um mapa por ID e há um índice por mesa e horário para a
+ * verificação de conflitos; operações que também alteram mesas são serializadas
+ */
+public class MemoriaReservaRepositorio implements ReservaRepositorio {
+    private final MemoriaClienteRepositorio clientes;
+    private final MemoriaMesaRepositorio mesas;
+    private final MapaInt<Registro> reservas = new MapaInt<>();
+    // Mesa -> horário -> quantidade de reservas naquele horário
+    private final MapaInt<ConcurrentHashMap<LocalDateTime, Integer>> horariosPorMesa = new MapaInt<>();
+    private final AtomicInteger ultimoId = new AtomicInteger();
+    // Caixa de saída cujas mensagens pendentes são descartadas no cancelamento
+    private MemoriaNotificacaoRepositorio notificacoes;
+
+    public MemoriaReservaRepositorio(MemoriaClienteRepositorio clientes, MemoriaMesaRepositorio mesas) {
+        this.clientes = clientes;
+        this.mesas = mesas;
+    }
+
+    /**
+     * Liga a caixa de saída (ela depende deste repositório, por isso não vem no construtor)
+     */
+    synchronized void setNotificacoes(MemoriaNotificacaoRepositorio notificacoes) {
+        this.notificacoes = notificacoes;
+    }
+
+    @Override
+    public synchronized void salvar(Reserva reserva) {
+        int id = ultimoId.incrementAndGet();
+        Registro r = new Registro(id, reserva.getCliente().getId(), reserva.getMesa().getNumero(),
+            reserva.getHorario(), reserva.getPessoas(), 0);
+        reservas.put(id, r);
+        horariosPorMesa.computeIfAbsent(r.mesa, k -> new ConcurrentHashMap<>()).merge(r.horario, 1, Integer::sum);
+        reserva.setId(id);
+    }
+
+    @Override
+    public boolean existeReserva(int numeroMesa, LocalDateTime horario) {
+        ConcurrentHashMap<LocalDateTime, Integer> horarios = horariosPorMesa.get(numeroMesa);
+        return horarios != null && horarios.containsKey(horario);
+    }
+
+    @Override
+    public List<Integer> mesasReservadasNoHorario(LocalDateTime horario) {
+        List<Integer> reservadas = new ArrayList<>();
+        for (Mesa mesa : mesas.listarTodas()) {
+            if (existeReserva(mesa.getNumero(), horario)) {
+                reservadas.add(mesa.getNumero());
+            }
+        }
+        return reservadas;
+    }
+
+    @Override
+    public synchronized void salvarGrupo(List<Reserva> grupo) {
+        int idGrupo = 0;
+        for (Reserva reserva : grupo) {
+            int id = ultimoId.incrementAndGet();
+            // O grupo é identificado pelo ID da primeira reserva
+            if (idGrupo == 0) {
+                idGrupo = id;
+            }
+            Registro r = new Registro(id, reserva.getCliente().getId(), reserva.getMesa().getNumero(),
+                reserva.getHorario(), reserva.getPessoas(), idGrupo);
+            reservas.put(id, r);
+            horariosPorMesa.computeIfAbsent(r.mesa, k -> new ConcurrentHashMap<>()).merge(r.horario, 1, Integer::sum);
+            mesas.ocupar(r.mesa);
+            reserva.setId(id);
+        }
+    }
+
+    @Override
+    public synchronized boolean cancelar(int idReserva) {
+        Registro r = reservas.remove(idReserva);
+        if (r == null) {
+            return false;
+        }
+        removerDoIndice(r);
+        mesas.liberar(r.mesa);
+        descartarNotificacoes(r);
+        
+        // Demais reservas do mesmo grupo de mesas juntadas
+        if (r.grupo != 0) {
+            for (Registro outro : reservas.valores()) {
+                if (outro.grupo == r.grupo) {
+                    reservas.remove(outro.id);
+                    removerDoIndice(outro);
+                    mesas.liberar(outro.mesa);
+                    descartarNotificacoes(outro);
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized int cancelarDoDia(LocalDate dia) {
+        int canceladas = 0;
+        for (Registro r : reservas.valores()) {
+            if (r.horario.toLocalDate().equals(dia)) {
+                reservas.remove(r.id);
+                removerDoIndice(r);
+                mesas.liberar(r.mesa);
+                canceladas++;
+            }
+        }
+        if (notificacoes != null) {
+            notificacoes.descartarPendentesDoDia(dia);
+        }
+        return canceladas;
+    }
+
+    @Override
+    public List<Reserva> listarTodas() {
+        return listar(null);
+    }
+
+    @Override
+    public List<Reserva> buscarPorNomeCliente(String nome) {
+        // LIKE do SQLite não diferencia maiúsculas de minúsculas
+        return listar(nome.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public List<LinhaReserva> listarLinhas() {
+        List<LinhaReserva> linhas = new ArrayList<>();
+        LinhaReserva.Montador montador = new LinhaReserva.Montador();
+        for (Reserva r : listarTodas()) {
+            linhas.add(montador.montar(r.getId(), r.getCliente(), r.getMesa(), r.getHorario(), r.getPessoas()));
+        }
+        return linhas;
+    }
+
+    @Override
+    public List<LinhaReserva> buscarLinhasPorNomeCliente(String nome) {
+        List<LinhaReserva> linhas = new ArrayList<>();
+        LinhaReserva.Montador montador = new LinhaReserva.Montador();
+        for (Reserva r : buscarPorNomeCliente(nome)) {
+            linhas.add(montador.montar(r.getId(), r.getCliente(), r.getMesa(), r.getHorario(), r.getPessoas()));
+        }
+        return linhas;
+    }
+
+    @Override
+    public List<Reserva> listarHistorico() {
+        // Não há arquivamento em memória: o histórico é o conjunto completo
+        return listarTodas();
+    }
+
+    @Override
+    public List<Reserva> buscarHistoricoPorNomeCliente(String nome) {
+        return buscarPorNomeCliente(nome);
+    }
+
+    /**
+     * Monta as reservas com cliente e mesa, como o JOIN do banco (reservas sem cliente
+     * ou mesa correspondente ficam de fora), ordenadas pelo horário
+     */
+    private List<Reserva> listar(String trechoNome) {
+        List<Registro> registros = reservas.valores();
+        registros.sort(Comparator.comparing((Registro r) -> r.horario).thenComparingInt(r -> r.id));
+
+        List<Reserva> lista = new ArrayList<>(registros.size());
+        for (Registro r : registros) {
+            Cliente cliente = clientes.buscarPorId(r.cliente);
+            Mesa mesa = mesas.buscarPorNumero(r.mesa);
+            if (cliente == null || mesa == null) {
+                continue;
+            }
+            if (trechoNome != null && !cliente.getNome().toLowerCase(Locale.ROOT).contains(trechoNome)) {
+                continue;
+            }
+            // O construtor não valida o horário: reservas passadas também são listadas
+            Reserva reserva = new Reserva(cliente, mesa, r.horario);
+            reserva.setId(r.id);
+            reserva.setPessoas(r.pessoas);
+            lista.add(reserva);
+        }
+        return lista;
+    }
+
+    /**
+     * Indica se a reserva com o ID ainda existe
+     */
+    boolean existe(int idReserva) {
+        return reservas.containsKey(idReserva);
+    }
+
+    private void descartarNotificacoes(Registro r) {
+        if (notificacoes != null) {
+            notificacoes.descartarPendentes(r.mesa, r.horario);
+        }
+    }
+
+    private void removerDoIndice(Registro r) {
+        ConcurrentHashMap<LocalDateTime, Integer> horarios = horariosPorMesa.get(r.mesa);
+        if (horarios != null) {
+            horarios.computeIfPresent(r.horario, (h, n) -> n > 1 ? n - 1 : null);
+        }
+    }
+
+    /**
+     * Reserva armazenada, apenas com as chaves de cliente e mesa
+     */
+    private static class Registro {
+        private final int id;
+        private final int cliente;
+        private final int mesa;
+        private final LocalDateTime horario;
+        private final int pessoas;
+        private final int grupo; // 0 = reserva de uma única mesa
+
+        Registro(int id, int cliente, int mesa, LocalDateTime horario, int pessoas, int grupo) {
+            this.id = id;
+            this.cliente = cliente;
+            this.mesa = mesa;
+            this.horario = horario;
+            this.pessoas = pessoas;
+            this.grupo = grupo;
+        }
+    }
+}
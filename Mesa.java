@@ -1,10 +1,11 @@
 package model;
 
-import java.sql.*;
+import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Classe que representa uma mesa do restaurante
- * Contém métodos para persistência no banco de dados
+ * A persistência é feita pelo repositório ativo (ver Repositorios)
  */
 public class Mesa {
     private int numero;
@@ -41,20 +42,11 @@ public class Mesa {
     public void setOcupada(boolean ocupada) { this.ocupada = ocupada; }
 
     /**
-     * Salva a mesa no banco de dados
+     * Salva a mesa no armazenamento ativo (banco de dados ou memória)
      * @throws SQLException em caso de erro no banco de dados
      */
     public void salvar() throws SQLException {
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "INSERT OR REPLACE INTO mesas (numero, capacidade, ocupada, vip) VALUES (?, ?, ?, ?)";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, numero);
-            stmt.setInt(2, capacidade);
-            stmt.setBoolean(3, ocupada);
-            stmt.setBoolean(4, false); // Mesa regular
-            stmt.executeUpdate();
-        }
+        Repositorios.mesas().salvar(this);
     }
     
     /**
@@ -64,22 +56,7 @@ public class Mesa {
      * @throws SQLException em caso de erro no banco de dados
      */
     public static Mesa buscarPorNumero(int numero) throws SQLException {
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "SELECT * FROM mesas WHERE numero = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, numero);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Mesa m = new Mesa();
-                    m.setNumero(rs.getInt("numero"));
-                    m.setCapacidade(rs.getInt("capacidade"));
-                    m.setOcupada(rs.getBoolean("ocupada"));
-                    return m;
-                }
-            }
-        }
-        return null;
+        return Repositorios.mesas().buscarPorNumero(numero);
     }
     
     /**
@@ -88,21 +65,7 @@ public class Mesa {
      * @throws SQLException em caso de erro no banco de dados
      */
     public static List<Mesa> listarTodas() throws SQLException {
-        List<Mesa> mesas = new ArrayList<>();
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "SELECT * FROM mesas ORDER BY numero";
-        
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Mesa m = new Mesa();
-                m.setNumero(rs.getInt("numero"));
-                m.setCapacidade(rs.getInt("capacidade"));
-                m.setOcupada(rs.getBoolean("ocupada"));
-                mesas.add(m);
-            }
-        }
-        return mesas;
+        return Repositorios.mesas().listarTodas();
     }
     
     /**
@@ -111,20 +74,6 @@ public class Mesa {
      * @throws SQLException em caso de erro no banco de dados
      */
     public static List<Mesa> listarDisponiveis() throws SQLException {
-        List<Mesa> mesas = new ArrayList<>();
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "SELECT * FROM mesas WHERE ocupada = false ORDER BY numero";
-        
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Mesa m = new Mesa();
-                m.setNumero(rs.getInt("numero"));
-                m.setCapacidade(rs.getInt("capacidade"));
-                m.setOcupada(false);
-                mesas.add(m);
-            }
-        }
-        return mesas;
+        return Repositorios.mesas().listarDisponiveis();
     }
 }
@@ -0,0 +1,50 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Acesso ao armazenamento de mesas
+ * Implementado em SQLite (SQLiteMesaRepositorio) e em memória (MemoriaMesaRepositorio)
+ */
+public interface MesaRepositorio {
+
+    /**
+     * Salva a mesa, substituindo a existente com o mesmo número
+     * @param mesa Mesa a ser salva
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    void salvar(Mesa mesa) throws SQLException;
+
+    /**
+     * Busca uma mesa pelo número
+     * @return Mesa encontrada ou null se não existir
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    Mesa buscarPorNumero(int numero) throws SQLException;
+
+    /**
+     * Lista todas as mesas ordenadas pelo número
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Mesa> listarTodas() throws SQLException;
+
+    /**
+     * Lista as mesas não ocupadas ordenadas pelo número
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Mesa> listarDisponiveis() throws SQLException;
+
+    /**
+     * Registra que duas mesas são adjacentes e podem ser juntadas
+     * O par é guardado uma única vez, independente da ordem
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    void salvarAdjacencia(int mesaA, int mesaB) throws SQLException;
+
+    /**
+     * Lista os pares de mesas adjacentes ({menor número, maior número})
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<int[]> listarAdjacencias() throws SQLException;
+}
@@ -0,0 +1,110 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mensagem para o cliente guardada na caixa de saída (tabela notificacoes)
+ * É gravada na mesma transação da reserva e enviada depois pelo DespachanteNotificacoes
+ */
+public class Notificacao {
+
+    /**
+     * Tipo da mensagem
+     */
+    public enum Tipo { CONFIRMACAO, LEMBRETE }
+
+    /**
+     * Situação na caixa de saída
+     * FALHA é a fila de mensagens mortas: esgotou as tentativas ou o gateway recusou de vez
+     */
+    public enum Status { PENDENTE, ENVIADA, DESCARTADA, FALHA }
+
+    private int id;
+    private int reservaId; // 0 = reserva ainda no diário de escrita
+    // Mesa e horário da reserva: o cancelamento descarta a mensagem por eles, mesmo sem ID
+    private int mesaNumero;
+    private LocalDateTime horarioReserva;
+    private Tipo tipo;
+    private String telefone;
+    private String mensagem;
+    private LocalDateTime enviarEm;
+    private int tentativas;
+    private Status status = Status.PENDENTE;
+    private String ultimoErro;
+    private boolean reservaAtiva = true;
+
+    // Construtores
+    public Notificacao() {}
+
+    public Notificacao(int reservaId, Tipo tipo, String telefone, String mensagem, LocalDateTime enviarEm) {
+        setReservaId(reservaId);
+        setTipo(tipo);
+        setTelefone(telefone);
+        setMensagem(mensagem);
+        setEnviarEm(enviarEm);
+    }
+
+    // Getters e Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public int getReservaId() { return reservaId; }
+    public void setReservaId(int reservaId) { this.reservaId = reservaId; }
+
+    public int getMesaNumero() { return mesaNumero; }
+    public void setMesaNumero(int mesaNumero) { this.mesaNumero = mesaNumero; }
+
+    public LocalDateTime getHorarioReserva() { return horarioReserva; }
+    public void setHorarioReserva(LocalDateTime horarioReserva) { this.horarioReserva = horarioReserva; }
+
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) {
+        if (tipo == null) {
+            throw new IllegalArgumentException("Tipo não pode ser nulo");
+        }
+        this.tipo = tipo;
+    }
+
+    public String getTelefone() { return telefone; }
+    public void setTelefone(String telefone) {
+        if (telefone == null || telefone.trim().isEmpty()) {
+            throw new IllegalArgumentException("Telefone não pode ser vazio");
+        }
+        this.telefone = telefone;
+    }
+
+    public String getMensagem() { return mensagem; }
+    public void setMensagem(String mensagem) {
+        if (mensagem == null || mensagem.isEmpty()) {
+            throw new IllegalArgumentException("Mensagem não pode ser vazia");
+        }
+        this.mensagem = mensagem;
+    }
+
+    /**
+     * Momento a partir do qual a mensagem pode ser enviada (ou reenviada, após uma falha)
+     */
+    public LocalDateTime getEnviarEm() { return enviarEm; }
+    public void setEnviarEm(LocalDateTime enviarEm) {
+        if (enviarEm == null) {
+            throw new IllegalArgumentException("Horário de envio não pode ser nulo");
+        }
+        this.enviarEm = enviarEm;
+    }
+
+    public int getTentativas() { return tentativas; }
+    public void setTentativas(int tentativas) { this.tentativas = tentativas; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getUltimoErro() { return ultimoErro; }
+    public void setUltimoErro(String ultimoErro) { this.ultimoErro = ultimoErro; }
+
+    /**
+     * Indica se a reserva ainda existe (mensagens de reservas canceladas são descartadas)
+     * Preenchido pelo repositório ao buscar as mensagens prontas para envio
+     */
+    public boolean isReservaAtiva() { return reservaAtiva; }
+    public void setReservaAtiva(boolean reservaAtiva) { this.reservaAtiva = reservaAtiva; }
+}
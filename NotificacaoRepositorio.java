@@ -0,0 +1,40 @@
+package model;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acesso à caixa de saída de notificações
+ * Implementado em SQLite (SQLiteNotificacaoRepositorio) e em memória (MemoriaNotificacaoRepositorio)
+ */
+public interface NotificacaoRepositorio {
+
+    /**
+     * Grava uma nova notificação pendente e atribui o ID gerado
+     * (no banco, participa da transação em andamento, como a da reserva)
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    void registrar(Notificacao notificacao) throws SQLException;
+
+    /**
+     * Lista as notificações pendentes cujo horário de envio já chegou, das mais antigas
+     * para as mais novas, indicando se a reserva de cada uma ainda existe
+     * @param agora Horário de referência
+     * @param limite Quantidade máxima de notificações (tamanho do lote)
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Notificacao> buscarProntas(LocalDateTime agora, int limite) throws SQLException;
+
+    /**
+     * Grava status, tentativas, próximo envio e erro de um lote, de forma atômica
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    void atualizar(List<Notificacao> notificacoes) throws SQLException;
+
+    /**
+     * Lista as notificações que falharam de vez (fila de mensagens mortas)
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Notificacao> listarFalhas() throws SQLException;
+}
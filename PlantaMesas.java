@@ -0,0 +1,198 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Planta do salão: mesas, capacidades e quais mesas podem ser juntadas (adjacentes)
+ * As mesas são identificadas pela posição na planta; capacidades ficam em um array
+ * primitivo e a vizinhança de cada mesa em um BitSet, para que a busca de combinações
+ * continue rápida em salões com centenas de mesas
+ */
+public class PlantaMesas {
+    private final Mesa[] mesas;
+    private final int[] capacidades;
+    private final BitSet[] vizinhos;
+    private final Map<Integer, Integer> indicePorNumero = new HashMap<>();
+
+    /**
+     * Monta a planta
+     * @param mesas Mesas do salão
+     * @param adjacencias Pares de números de mesas que podem ser juntadas
+     */
+    public PlantaMesas(List<Mesa> mesas, List<int[]> adjacencias) {
+        this.mesas = mesas.toArray(new Mesa[0]);
+        this.capacidades = new int[this.mesas.length];
+        this.vizinhos = new BitSet[this.mesas.length];
+        for (int i = 0; i < this.mesas.length; i++) {
+            capacidades[i] = this.mesas[i].getCapacidade();
+            vizinhos[i] = new BitSet(this.mesas.length);
+            indicePorNumero.put(this.mesas[i].getNumero(), i);
+        }
+        for (int[] par : adjacencias) {
+            Integer a = indicePorNumero.get(par[0]);
+            Integer b = indicePorNumero.get(par[1]);
+            // Adjacências de mesas removidas são ignoradas
+            if (a != null && b != null) {
+                vizinhos[a].set(b);
+                vizinhos[b].set(a);
+            }
+        }
+    }
+
+    /**
+     * Carrega a planta do armazenamento ativo
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public static PlantaMesas carregar() throws SQLException {
+        MesaRepositorio repositorio = Repositorios.mesas();
+        return new PlantaMesas(repositorio.listarTodas(), repositorio.listarAdjacencias());
+    }
+
+    public int getQuantidade() { return mesas.length; }
+    public Mesa getMesa(int indice) { return mesas[indice]; }
+
+    /**
+     * Retorna as posições das mesas livres: não ocupadas e sem reserva no horário
+     * @param reservadas Números das mesas que já têm reserva no horário
+     */
+    public BitSet livres(Collection<Integer> reservadas) {
+        BitSet livres = new BitSet(mesas.length);
+        for (int i = 0; i < mesas.length; i++) {
+            if (!mesas[i].isOcupada()) {
+                livres.set(i);
+            }
+        }
+        for (Integer numero : reservadas) {
+            Integer indice = indicePorNumero.get(numero);
+            if (indice != null) {
+                livres.clear(indice);
+            }
+        }
+        return livres;
+    }
+
+    /**
+     * Busca o menor conjunto de mesas livres e ligadas entre si que acomoda o grupo
+     * Entre os conjuntos com o menor número de mesas, escolhe o que deixa menos lugares vazios
+     * @param livres Posições das mesas livres (ver livres)
+     * @param pessoas Tamanho do grupo
+     * @param maxMesas Quantidade máxima de mesas juntadas
+     * @return Mesas escolhidas, ou lista vazia se não houver combinação
+     */
+    public List<Mesa> buscarCombinacao(BitSet livres, int pessoas, int maxMesas) {
+        if (pessoas < 1) {
+            throw new IllegalArgumentException("Quantidade de pessoas inválida");
+        }
+        if (maxMesas < 1) {
+            throw new IllegalArgumentException("Quantidade máxima de mesas inválida");
+        }
+
+        Busca busca = new Busca(livres, pessoas, maxMesas);
+        // Aprofundamento iterativo: a primeira quantidade de mesas com solução é a menor
+        for (int tamanho = 1; tamanho <= maxMesas && busca.melhor == null; tamanho++) {
+            busca.executar(tamanho);
+        }
+
+        List<Mesa> escolhidas = new ArrayList<>();
+        if (busca.melhor != null) {
+            for (int indice : busca.melhor) {
+                escolhidas.add(mesas[indice]);
+            }
+        }
+        return escolhidas;
+    }
+
+    /**
+     * Enumeração dos conjuntos conexos de mesas livres com um tamanho fixo
+     * Cada conjunto é gerado uma única vez a partir da sua mesa de menor posição
+     * (algoritmo ESU), e ramos que não alcançam o grupo mesmo com as maiores
+     * mesas livres restantes são descartados
+     */
+    private class Busca {
+        private final BitSet livres;
+        private final int pessoas;
+        // maiores[r] = soma das r maiores capacidades entre as mesas livres
+        private final int[] maiores;
+        private final int[] atual;
+        private int tamanho;
+        private int[] melhor;
+        private int melhorSobra;
+
+        Busca(BitSet livres, int pessoas, int maxMesas) {
+            this.livres = livres;
+            this.pessoas = pessoas;
+            this.atual = new int[maxMesas];
+
+            int[] capacidadesLivres = livres.stream().map(i -> capacidades[i]).toArray();
+            Arrays.sort(capacidadesLivres);
+            maiores = new int[maxMesas + 1];
+            for (int r = 1; r <= maxMesas; r++) {
+                int i = capacidadesLivres.length - r;
+                maiores[r] = maiores[r - 1] + (i >= 0 ? capacidadesLivres[i] : 0);
+            }
+        }
+
+        void executar(int tamanho) {
+            this.tamanho = tamanho;
+            if (maiores[tamanho] < pessoas) {
+                return;
+            }
+            for (int raiz = livres.nextSetBit(0); raiz >= 0; raiz = livres.nextSetBit(raiz + 1)) {
+                BitSet extensao = (BitSet) vizinhos[raiz].clone();
+                extensao.and(livres);
+                extensao.clear(0, raiz + 1);
+                BitSet vizinhanca = (BitSet) vizinhos[raiz].clone();
+                vizinhanca.set(raiz);
+                atual[0] = raiz;
+                estender(raiz, 1, capacidades[raiz], extensao, vizinhanca);
+                if (melhor != null && melhorSobra == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @param extensao Mesas que podem entrar no conjunto sem gerar repetições
+         * @param vizinhanca Mesas do conjunto e seus vizinhos
+         */
+        private void estender(int raiz, int usadas, int capacidade, BitSet extensao, BitSet vizinhanca) {
+            if (usadas == tamanho) {
+                if (capacidade >= pessoas && (melhor == null || capacidade - pessoas < melhorSobra)) {
+                    melhor = Arrays.copyOf(atual, tamanho);
+                    melhorSobra = capacidade - pessoas;
+                }
+                return;
+            }
+            if (capacidade + maiores[tamanho - usadas] < pessoas) {
+                return;
+            }
+
+            BitSet restantes = (BitSet) extensao.clone();
+            for (int w = restantes.nextSetBit(0); w >= 0; w = restantes.nextSetBit(w + 1)) {
+                restantes.clear(w);
+                // Vizinhos de w ainda fora da vizinhança do conjunto (e depois da raiz) passam a ser candidatos
+                BitSet novos = (BitSet) vizinhos[w].clone();
+                novos.and(livres);
+                novos.andNot(vizinhanca);
+                novos.clear(0, raiz + 1);
+                BitSet novaExtensao = (BitSet) restantes.clone();
+                novaExtensao.or(novos);
+                BitSet novaVizinhanca = (BitSet) vizinhanca.clone();
+                novaVizinhanca.or(vizinhos[w]);
+
+                atual[usadas] = w;
+                estender(raiz, usadas + 1, capacidade + capacidades[w], novaExtensao, novaVizinhanca);
+                if (melhor != null && melhorSobra == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package model;
+
+/**
+ * Ponto único de acesso aos repositórios ativos
+ * Por padrão usa o banco SQLite; usarMemoria() troca todo o armazenamento para
+ * a implementação em memória (testes, benchmarks e modo demonstração/quiosque)
+ */
+public final class Repositorios {
+    private static volatile ClienteRepositorio clientes;
+    private static volatile MesaRepositorio mesas;
+    private static volatile ReservaRepositorio reservas;
+    private static volatile NotificacaoRepositorio notificacoes;
+    private static volatile boolean memoria;
+
+    static {
+        usarSQLite();
+    }
+
+    private Repositorios() {}
+
+    /**
+     * Usa o banco SQLite (restaurante.db)
+     */
+    public static synchronized void usarSQLite() {
+        clientes = new SQLiteClienteRepositorio();
+        mesas = new SQLiteMesaRepositorio();
+        reservas = new SQLiteReservaRepositorio();
+        notificacoes = new SQLiteNotificacaoRepositorio();
+        memoria = false;
+    }
+
+    /**
+     * Usa um armazenamento em memória novo e vazio
+     */
+    public static synchronized void usarMemoria() {
+        MemoriaClienteRepositorio memoriaClientes = new MemoriaClienteRepositorio();
+        MemoriaMesaRepositorio memoriaMesas = new MemoriaMesaRepositorio();
+        clientes = memoriaClientes;
+        mesas = memoriaMesas;
+        MemoriaReservaRepositorio memoriaReservas = new MemoriaReservaRepositorio(memoriaClientes, memoriaMesas);
+        reservas = memoriaReservas;
+        MemoriaNotificacaoRepositorio memoriaNotificacoes = new MemoriaNotificacaoRepositorio(memoriaReservas);
+        memoriaReservas.setNotificacoes(memoriaNotificacoes);
+        notificacoes = memoriaNotificacoes;
+        memoria = true;
+    }
+
+    /**
+     * Indica se o armazenamento ativo é o em memória
+     */
+    public static boolean isMemoria() {
+        return memoria;
+    }
+
+    public static ClienteRepositorio clientes() { return clientes; }
+    public static MesaRepositorio mesas() { return mesas; }
+    public static ReservaRepositorio reservas() { return reservas; }
+    public static NotificacaoRepositorio notificacoes() { return notificacoes; }
+}
@@ -1,5 +1,6 @@
 package model;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -12,6 +13,7 @@ public class Reserva {
     private Cliente cliente;
     private Mesa mesa;
     private LocalDateTime horario;
+    private int pessoas; // 0 = não informado
     
     // Formato para exibição de datas
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
@@ -53,6 +55,14 @@ public class Reserva {
         this.horario = horario;
     }
     
+    public int getPessoas() { return pessoas; }
+    public void setPessoas(int pessoas) {
+        if (pessoas < 0) {
+            throw new IllegalArgumentException("Quantidade de pessoas inválida");
+        }
+        this.pessoas = pessoas;
+    }
+    
     /**
      * Retorna o horário formatado como string
      * @return String no formato "dd/MM/yyyy HH:mm"
@@ -62,26 +72,13 @@ public class Reserva {
     }
     
     /**
-     * Salva a reserva no banco de dados
+     * Salva a reserva no armazenamento ativo e marca a mesa como ocupada
+     * Com o diário de escrita ativo e fora de uma transação, a reserva é confirmada ao
+     * entrar no diário e o ID só é atribuído quando ela for aplicada no banco (getId() continua 0)
      * @throws SQLException em caso de erro no banco de dados
      */
     public void salvar() throws SQLException {
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "INSERT INTO reservas (cliente_id, mesa_numero, horario) VALUES (?, ?, ?)";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setInt(1, cliente.getId());
-            stmt.setInt(2, mesa.getNumero());
-            stmt.setString(3, horario.toString());
-            stmt.executeUpdate();
-            
-            // Obter o ID gerado
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    this.id = rs.getInt(1);
-                }
-            }
-        }
+        Repositorios.reservas().salvar(this);
         
         // Marcar mesa como ocupada
         mesa.setOcupada(true);
@@ -89,20 +86,11 @@ public class Reserva {
     }
     
     /**
-     * Cancela a reserva no banco de dados
+     * Cancela a reserva, liberando a mesa na mesma operação
      * @throws SQLException em caso de erro no banco de dados
      */
     public void cancelar() throws SQLException {
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "DELETE FROM reservas WHERE id = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
-        }
-        
-        // Liberar a mesa
+        Repositorios.reservas().cancelar(id);
         mesa.setOcupada(false);
-        mesa.salvar();
     }
 }
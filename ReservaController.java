@@ -1,9 +1,13 @@
 package controller;
 
 import model.*;
-import java.sql.*;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -11,6 +15,15 @@ import java.util.List;
  * Faz a mediação entre a view e o model
  */
 public class ReservaController {
+    // Resultados de requisições com chave de idempotência, compartilhados por todas as telas
+    private static final CacheIdempotencia IDEMPOTENCIA = new CacheIdempotencia(10_000, Duration.ofHours(24));
+    private static final String OPERACAO_RESERVA = "RESERVA";
+    private static final String OPERACAO_CANCELAMENTO = "CANCELAMENTO";
+    // Quantidade máxima de mesas juntadas para um único grupo
+    private static final int MAX_MESAS_POR_GRUPO = 6;
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm");
+    // Serializa as reservas no armazenamento em memória (no banco, a transação já faz isso)
+    private static final Object TRAVA_MEMORIA = new Object();
     
     /**
      * Realiza uma nova reserva
@@ -22,6 +35,72 @@ public class ReservaController {
      */
     public void fazerReserva(Cliente cliente, int numeroMesa, LocalDateTime horario) 
             throws SQLException, IllegalStateException {
+        fazerReserva(cliente, numeroMesa, horario, 0);
+    }
+    
+    /**
+     * Realiza uma nova reserva informando o tamanho do grupo
+     * A confirmação e o lembrete para o cliente entram na caixa de saída na mesma transação
+     * @param cliente Cliente que está fazendo a reserva
+     * @param numeroMesa Número da mesa desejada
+     * @param horario Horário da reserva
+     * @param pessoas Quantidade de pessoas (0 = não informado)
+     * @throws SQLException em caso de erro no banco de dados
+     * @throws IllegalStateException se a mesa já estiver reservada
+     */
+    public void fazerReserva(Cliente cliente, int numeroMesa, LocalDateTime horario, int pessoas) 
+            throws SQLException, IllegalStateException {
+        atomico(conn -> reservar(cliente, numeroMesa, horario, pessoas));
+    }
+    
+    /**
+     * Realiza uma nova reserva identificada por uma chave de idempotência
+     * O cliente (se ainda não estiver salvo) e a reserva são gravados na mesma transação.
+     * Repetir a chamada com a mesma chave (duplo clique, nova tentativa) não grava nada
+     * de novo e devolve o resultado da primeira
+     * @param chave Chave de idempotência gerada por quem pede (ex.: um UUID por formulário)
+     * @param cliente Cliente que está fazendo a reserva
+     * @param numeroMesa Número da mesa desejada
+     * @param horario Horário da reserva
+     * @param pessoas Quantidade de pessoas (0 = não informado)
+     * @return ID da reserva (gravada na transação, mesmo com o diário de escrita ativo)
+     * @throws SQLException em caso de erro no banco de dados
+     * @throws IllegalStateException se a mesa já estiver reservada
+     * @throws IllegalArgumentException se a chave já foi usada com outros dados
+     */
+    public int fazerReserva(String chave, Cliente cliente, int numeroMesa, LocalDateTime horario, int pessoas)
+            throws SQLException, IllegalStateException {
+        if (cliente == null) {
+            throw new IllegalArgumentException("Cliente não pode ser nulo");
+        }
+        boolean clienteNovo = cliente.getId() == 0;
+        try {
+            // Mesma chave com outra mesa, horário, pessoas ou cliente é recusada
+            String requisicao = numeroMesa + "|" + horario + "|" + pessoas + "|" + cliente.getTelefone();
+            // No banco, atomico entra na transação já aberta pela chave
+            String resultado = IDEMPOTENCIA.executar(chave, OPERACAO_RESERVA, requisicao, conn -> atomico(c -> {
+                if (cliente.getId() == 0) {
+                    cliente.salvar();
+                }
+                return String.valueOf(reservar(cliente, numeroMesa, horario, pessoas).getId());
+            }));
+            return Integer.parseInt(resultado);
+        } catch (SQLException | RuntimeException e) {
+            // No banco, o cliente foi gravado na transação desfeita: ele não existe mais
+            if (clienteNovo && cliente.getId() != 0 && !Repositorios.isMemoria()) {
+                IndiceClientes.getInstance().remover(cliente.getId());
+                cliente.setId(0);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Valida e grava a reserva
+     * @return Reserva criada
+     */
+    private Reserva reservar(Cliente cliente, int numeroMesa, LocalDateTime horario, int pessoas) 
+            throws SQLException {
         
         // Validar parâmetros
         if (cliente == null) {
@@ -54,7 +133,119 @@ public class ReservaController {
         
         // Criar e salvar a reserva
         Reserva reserva = new Reserva(cliente, mesa, horario);
+        reserva.setPessoas(pessoas);
         reserva.salvar();
+        agendarNotificacoes(reserva, "mesa " + numeroMesa);
+        return reserva;
+    }
+    
+    /**
+     * Reserva mesas para um grupo grande, juntando mesas adjacentes
+     * Escolhe o menor conjunto de mesas livres e adjacentes que acomoda o grupo (e, entre
+     * esses, o que deixa menos lugares vazios) e grava uma reserva por mesa, todas na
+     * mesma transação e ligadas pelo mesmo grupo
+     * @param cliente Cliente que está fazendo a reserva (já salvo)
+     * @param horario Horário da reserva
+     * @param pessoas Tamanho do grupo
+     * @return Reservas feitas, uma por mesa
+     * @throws SQLException em caso de erro no banco de dados
+     * @throws IllegalStateException se não houver mesas adjacentes livres suficientes
+     */
+    public List<Reserva> fazerReservaGrupo(Cliente cliente, LocalDateTime horario, int pessoas)
+            throws SQLException, IllegalStateException {
+        if (cliente == null) {
+            throw new IllegalArgumentException("Cliente não pode ser nulo");
+        }
+        if (horario == null || horario.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Horário inválido");
+        }
+        if (pessoas < 1) {
+            throw new IllegalArgumentException("Quantidade de pessoas inválida");
+        }
+        
+        // Busca e gravação na mesma transação: as mesas escolhidas não mudam no meio
+        return atomico(conn -> reservarGrupo(cliente, horario, pessoas));
+    }
+    
+    private List<Reserva> reservarGrupo(Cliente cliente, LocalDateTime horario, int pessoas) 
+            throws SQLException {
+        // Primeira leitura da transação: aguarda o diário antes de fixar a visão do banco
+        List<Integer> reservadas = Repositorios.reservas().mesasReservadasNoHorario(horario);
+        PlantaMesas planta = PlantaMesas.carregar();
+        BitSet livres = planta.livres(reservadas);
+        
+        List<Mesa> mesas = planta.buscarCombinacao(livres, pessoas, MAX_MESAS_POR_GRUPO);
+        if (mesas.isEmpty()) {
+            throw new IllegalStateException("Não há mesas adjacentes livres para " + pessoas + 
+                " pessoas no horário selecionado");
+        }
+        
+        // Distribui as pessoas pelas mesas, enchendo uma de cada vez
+        List<Reserva> grupo = new ArrayList<>(mesas.size());
+        int restantes = pessoas;
+        for (Mesa mesa : mesas) {
+            Reserva reserva = new Reserva(cliente, mesa, horario);
+            int nestaMesa = Math.min(restantes, mesa.getCapacidade());
+            reserva.setPessoas(nestaMesa);
+            restantes -= nestaMesa;
+            grupo.add(reserva);
+        }
+        Repositorios.reservas().salvarGrupo(grupo);
+        StringBuilder numeros = new StringBuilder();
+        for (Mesa mesa : mesas) {
+            mesa.setOcupada(true);
+            numeros.append(numeros.length() == 0 ? "" : ", ").append(mesa.getNumero());
+        }
+        // Uma única confirmação (e um lembrete) para o grupo, ligada à primeira reserva
+        agendarNotificacoes(grupo.get(0), "mesas " + numeros);
+        return grupo;
+    }
+    
+    /**
+     * Coloca na caixa de saída a confirmação da reserva e, se ainda houver tempo,
+     * o lembrete da véspera; o envio é feito depois pelo DespachanteNotificacoes
+     * @param descricaoMesas Mesa(s) da reserva como aparecem na mensagem
+     */
+    private void agendarNotificacoes(Reserva reserva, String descricaoMesas) throws SQLException {
+        Cliente cliente = reserva.getCliente();
+        if (cliente.getTelefone() == null || cliente.getTelefone().trim().isEmpty()) {
+            return;
+        }
+        NotificacaoRepositorio caixaSaida = Repositorios.notificacoes();
+        LocalDateTime agora = LocalDateTime.now();
+        
+        caixaSaida.registrar(daReserva(reserva, new Notificacao(reserva.getId(), Notificacao.Tipo.CONFIRMACAO,
+            cliente.getTelefone(), String.format("Olá, %s! Sua reserva para %s (%s) está confirmada.",
+                cliente.getNome(), reserva.getHorarioFormatado(), descricaoMesas), agora)));
+        
+        LocalDateTime vespera = reserva.getHorario().minusDays(1);
+        if (vespera.isAfter(agora)) {
+            caixaSaida.registrar(daReserva(reserva, new Notificacao(reserva.getId(), Notificacao.Tipo.LEMBRETE,
+                cliente.getTelefone(), String.format("Lembrete: sua reserva é amanhã às %s (%s).",
+                    reserva.getHorario().format(FORMATO_HORA), descricaoMesas), vespera)));
+        }
+    }
+
+    /**
+     * Liga a mensagem à mesa e ao horário da reserva, pelos quais o cancelamento a descarta
+     */
+    private static Notificacao daReserva(Reserva reserva, Notificacao notificacao) {
+        notificacao.setMesaNumero(reserva.getMesa().getNumero());
+        notificacao.setHorarioReserva(reserva.getHorario());
+        return notificacao;
+    }
+
+    /**
+     * Executa a operação em uma transação do banco; no armazenamento em memória, executa
+     * sob uma trava, para que a verificação de conflito e a gravação não se intercalem
+     */
+    private static <T> T atomico(Database.Transacao<T> operacao) throws SQLException {
+        if (Repositorios.isMemoria()) {
+            synchronized (TRAVA_MEMORIA) {
+                return operacao.executar(null);
+            }
+        }
+        return Database.getInstance().emTransacao(operacao);
     }
     
     /**
@@ -65,145 +256,116 @@ public class ReservaController {
      * @throws SQLException em caso de erro no banco de dados
      */
     private boolean verificarConflitoHorario(int numeroMesa, LocalDateTime horario) throws SQLException {
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "SELECT COUNT(*) FROM reservas WHERE mesa_numero = ? AND horario = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, numeroMesa);
-            stmt.setString(2, horario.toString());
-            try (ResultSet rs = stmt.executeQuery()) {
-                return rs.getInt(1) > 0;
-            }
-        }
+        return Repositorios.reservas().existeReserva(numeroMesa, horario);
     }
     
     /**
      * Cancela uma reserva existente
+     * Remove a reserva e libera a mesa em uma única operação, sem montar objetos
      * @param idReserva ID da reserva a cancelar
      * @throws SQLException em caso de erro no banco de dados
      * @throws IllegalArgumentException se a reserva não for encontrada
      */
     public void cancelarReserva(int idReserva) throws SQLException, IllegalArgumentException {
-        // Buscar reserva no banco de dados
-        Connection conn = Database.getInstance().getConnection();
-        String sql = "SELECT r.*, m.* FROM reservas r JOIN mesas m ON r.mesa_numero = m.numero WHERE r.id = ?";
-        
-        Reserva reserva = null;
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, idReserva);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    reserva = new Reserva();
-                    reserva.setId(rs.getInt("id"));
-                    
-                    Cliente cliente = Cliente.buscarPorId(rs.getInt("cliente_id"));
-                    reserva.setCliente(cliente);
-                    
-                    Mesa mesa = new Mesa();
-                    mesa.setNumero(rs.getInt("numero"));
-                    mesa.setCapacidade(rs.getInt("capacidade"));
-                    mesa.setOcupada(rs.getBoolean("ocupada"));
-                    reserva.setMesa(mesa);
-                    
-                    reserva.setHorario(LocalDateTime.parse(rs.getString("horario")));
-                }
-            }
-        }
-        
-        if (reserva == null) {
+        if (!Repositorios.reservas().cancelar(idReserva)) {
             throw new IllegalArgumentException("Reserva não encontrada");
         }
-        
-        // Cancelar a reserva
-        reserva.cancelar();
     }
     
     /**
-     * Lista todas as reservas cadastradas
+     * Cancela uma reserva identificada por uma chave de idempotência
+     * Repetir a chamada com a mesma chave não gera erro de "Reserva não encontrada":
+     * devolve o resultado do primeiro cancelamento
+     * @param chave Chave de idempotência gerada por quem pede
+     * @param idReserva ID da reserva a cancelar
+     * @throws SQLException em caso de erro no banco de dados
+     * @throws IllegalArgumentException se a reserva não for encontrada
+     */
+    public void cancelarReserva(String chave, int idReserva) throws SQLException, IllegalArgumentException {
+        IDEMPOTENCIA.executar(chave, OPERACAO_CANCELAMENTO, String.valueOf(idReserva), conn -> {
+            cancelarReserva(idReserva);
+            return String.valueOf(idReserva);
+        });
+    }
+    
+    /**
+     * Remove do banco as chaves de idempotência vencidas
+     * @return Quantidade de chaves removidas
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public static int limparChavesExpiradas() throws SQLException {
+        return IDEMPOTENCIA.limparExpiradas();
+    }
+    
+    /**
+     * Cancela todas as reservas de um dia (ex.: restaurante fechado)
+     * No banco, usa sempre as mesmas três instruções (libera as mesas, descarta as notificações
+     * pendentes e remove as reservas), independente de quantas reservas forem canceladas
+     * @param dia Dia cujas reservas serão canceladas
+     * @return Quantidade de reservas canceladas
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public int cancelarReservasDoDia(LocalDate dia) throws SQLException {
+        if (dia == null) {
+            throw new IllegalArgumentException("Dia não pode ser nulo");
+        }
+        return Repositorios.reservas().cancelarDoDia(dia);
+    }
+    
+    /**
+     * Lista as reservas ativas (as arquivadas ficam de fora)
      * @return Lista de reservas
      * @throws SQLException em caso de erro no banco de dados
      */
     public List<Reserva> listarReservas() throws SQLException {
-        List<Reserva> reservas = new ArrayList<>();
-        Connection conn = Database.getInstance().getConnection();
-        
-        // Query para buscar reservas com informações de cliente e mesa
-        String sql = "SELECT r.id, r.horario, " +
-                     "c.id as cliente_id, c.nome as cliente_nome, c.telefone as cliente_telefone, " +
-                     "m.numero as mesa_numero, m.capacidade as mesa_capacidade, m.ocupada as mesa_ocupada " +
-                     "FROM reservas r " +
-                     "JOIN clientes c ON r.cliente_id = c.id " +
-                     "JOIN mesas m ON r.mesa_numero = m.numero " +
-                     "ORDER BY r.horario";
-        
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Reserva reserva = new Reserva();
-                reserva.setId(rs.getInt("id"));
-                reserva.setHorario(LocalDateTime.parse(rs.getString("horario")));
-                
-                Cliente cliente = new Cliente();
-                cliente.setId(rs.getInt("cliente_id"));
-                cliente.setNome(rs.getString("cliente_nome"));
-                cliente.setTelefone(rs.getString("cliente_telefone"));
-                reserva.setCliente(cliente);
-                
-                Mesa mesa = new Mesa();
-                mesa.setNumero(rs.getInt("mesa_numero"));
-                mesa.setCapacidade(rs.getInt("mesa_capacidade"));
-                mesa.setOcupada(rs.getBoolean("mesa_ocupada"));
-                reserva.setMesa(mesa);
-                
-                reservas.add(reserva);
-            }
-        }
-        return reservas;
+        return Repositorios.reservas().listarTodas();
     }
     
     /**
-     * Busca reservas por nome do cliente
+     * Busca reservas ativas por nome do cliente
      * @param nome Nome ou parte do nome do cliente
      * @return Lista de reservas encontradas
      * @throws SQLException em caso de erro no banco de dados
      */
     public List<Reserva> buscarPorNomeCliente(String nome) throws SQLException {
-        List<Reserva> reservas = new ArrayList<>();
-        Connection conn = Database.getInstance().getConnection();
-        
-        String sql = "SELECT r.id, r.horario, " +
-                     "c.id as cliente_id, c.nome as cliente_nome, c.telefone as cliente_telefone, " +
-                     "m.numero as mesa_numero, m.capacidade as mesa_capacidade, m.ocupada as mesa_ocupada " +
-                     "FROM reservas r " +
-                     "JOIN clientes c ON r.cliente_id = c.id " +
-                     "JOIN mesas m ON r.mesa_numero = m.numero " +
-                     "WHERE c.nome LIKE ? " +
-                     "ORDER BY r.horario";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, "%" + nome + "%");
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Reserva reserva = new Reserva();
-                    reserva.setId(rs.getInt("id"));
-                    reserva.setHorario(LocalDateTime.parse(rs.getString("horario")));
-                    
-                    Cliente cliente = new Cliente();
-                    cliente.setId(rs.getInt("cliente_id"));
-                    cliente.setNome(rs.getString("cliente_nome"));
-                    cliente.setTelefone(rs.getString("cliente_telefone"));
-                    reserva.setCliente(cliente);
-                    
-                    Mesa mesa = new Mesa();
-                    mesa.setNumero(rs.getInt("mesa_numero"));
-                    mesa.setCapacidade(rs.getInt("mesa_capacidade"));
-                    mesa.setOcupada(rs.getBoolean("mesa_ocupada"));
-                    reserva.setMesa(mesa);
-                    
-                    reservas.add(reserva);
-                }
-            }
-        }
-        return reservas;
+        return Repositorios.reservas().buscarPorNomeCliente(nome);
+    }
+    
+    /**
+     * Lista as reservas ativas como linhas somente leitura, para exibição em tabelas
+     * @return Linhas ordenadas pelo horário
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public List<LinhaReserva> listarLinhasReservas() throws SQLException {
+        return Repositorios.reservas().listarLinhas();
+    }
+    
+    /**
+     * Busca reservas ativas por nome do cliente, como linhas somente leitura
+     * @param nome Nome ou parte do nome do cliente
+     * @return Linhas ordenadas pelo horário
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public List<LinhaReserva> buscarLinhasPorNomeCliente(String nome) throws SQLException {
+        return Repositorios.reservas().buscarLinhasPorNomeCliente(nome);
+    }
+    
+    /**
+     * Lista todas as reservas, incluindo as arquivadas
+     * @return Lista de reservas
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public List<Reserva> listarHistoricoReservas() throws SQLException {
+        return Repositorios.reservas().listarHistorico();
+    }
+    
+    /**
+     * Busca reservas por nome do cliente, incluindo as arquivadas
+     * @param nome Nome ou parte do nome do cliente
+     * @return Lista de reservas encontradas
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public List<Reserva> buscarHistoricoPorNomeCliente(String nome) throws SQLException {
+        return Repositorios.reservas().buscarHistoricoPorNomeCliente(nome);
     }
 }
@@ -1,11 +1,16 @@
 package view;
 
 import javax.swing.*;
+import javax.swing.event.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.time.*;
 import java.time.format.*;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
 import model.*;
+import controller.AdmissaoReservas;
 import controller.ReservaController;
 
 /**
@@ -15,14 +20,24 @@ public class ReservaPanel extends JPanel {
     private JTextField nomeField, telefoneField, descontoField, mesaField;
     private JFormattedTextField horarioField;
     private JComboBox<String> tipoClienteCombo;
-    private ReservaController controller;
+    private JButton reservarButton;
+    // Entrada única de reservas do aplicativo, compartilhada pelos painéis recriados
+    private static final AdmissaoReservas ADMISSAO =
+        new AdmissaoReservas(new ReservaController(), 2, 64, 48, 8, Duration.ofSeconds(10));
+    private static final String ORIGEM = "balcao";
+    // Identifica o envio deste formulário; cliques repetidos reutilizam a mesma chave
+    private String chaveRequisicao = UUID.randomUUID().toString();
+    
+    // Sugestões de clientes já cadastrados
+    private static final int MAX_SUGESTOES = 8;
+    private final JPopupMenu sugestoesPopup = new JPopupMenu();
+    private Cliente clienteSelecionado; // cliente escolhido nas sugestões, reutilizado na reserva
+    private boolean preenchendo;        // campos sendo preenchidos pelo próprio painel
     
     /**
      * Construtor que inicializa o painel
      */
     public ReservaPanel() {
-        this.controller = new ReservaController();
-        
         // Configuração do layout e bordas
         setLayout(new GridLayout(0, 2, 10, 10));
         setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -45,6 +60,11 @@ public class ReservaPanel extends JPanel {
         telefoneField = new JTextField();
         add(telefoneField);
         
+        // Sugestões enquanto o nome ou o telefone é digitado
+        sugestoesPopup.setFocusable(false);
+        configurarSugestoes(nomeField);
+        configurarSugestoes(telefoneField);
+        
         // Combo box para tipo de cliente
         add(new JLabel("Tipo de Cliente:"));
         tipoClienteCombo = new JComboBox<>(new String[]{"Regular", "VIP"});
@@ -75,11 +95,76 @@ public class ReservaPanel extends JPanel {
         
         // Botão para fazer reserva
         add(new JLabel()); // Espaço vazio para alinhamento
-        JButton reservarButton = new JButton("Fazer Reserva");
+        reservarButton = new JButton("Fazer Reserva");
         reservarButton.addActionListener(this::fazerReserva);
         add(reservarButton);
     }
     
+    /**
+     * Sugere clientes já cadastrados enquanto o campo é digitado
+     * As sugestões vêm do índice em memória (IndiceClientes), sem consultar o banco
+     */
+    private void configurarSugestoes(JTextField campo) {
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { textoAlterado(campo); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { textoAlterado(campo); }
+            @Override
+            public void changedUpdate(DocumentEvent e) {}
+        });
+        campo.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                sugestoesPopup.setVisible(false);
+            }
+        });
+    }
+    
+    private void textoAlterado(JTextField campo) {
+        if (preenchendo) {
+            return;
+        }
+        // Editar o nome ou o telefone desfaz a escolha de um cliente existente
+        clienteSelecionado = null;
+        SwingUtilities.invokeLater(() -> mostrarSugestoes(campo));
+    }
+    
+    private void mostrarSugestoes(JTextField campo) {
+        sugestoesPopup.setVisible(false);
+        sugestoesPopup.removeAll();
+        if (!campo.isFocusOwner()) {
+            return;
+        }
+        
+        List<Cliente> sugestoes = IndiceClientes.getInstance().buscar(campo.getText(), MAX_SUGESTOES);
+        if (sugestoes.isEmpty()) {
+            return;
+        }
+        for (Cliente cliente : sugestoes) {
+            JMenuItem item = new JMenuItem(cliente.getNome() + " - " + cliente.getTelefone());
+            item.addActionListener(e -> selecionarCliente(cliente));
+            sugestoesPopup.add(item);
+        }
+        sugestoesPopup.show(campo, 0, campo.getHeight());
+    }
+    
+    /**
+     * Preenche o formulário com o cliente sugerido e o reutiliza na reserva,
+     * em vez de cadastrar o mesmo cliente de novo
+     */
+    private void selecionarCliente(Cliente cliente) {
+        preenchendo = true;
+        try {
+            nomeField.setText(cliente.getNome());
+            telefoneField.setText(cliente.getTelefone());
+        } finally {
+            preenchendo = false;
+        }
+        clienteSelecionado = cliente;
+        sugestoesPopup.setVisible(false);
+    }
+    
     /**
      * Método chamado ao clicar no botão de fazer reserva
      */
@@ -102,9 +187,11 @@ public class ReservaPanel extends JPanel {
                 throw new IllegalArgumentException("Horário é obrigatório");
             }
             
-            // Criar o cliente (regular ou VIP)
+            // Usar o cliente escolhido nas sugestões ou criar um novo (regular ou VIP)
             Cliente cliente;
-            if (tipoClienteCombo.getSelectedIndex() == 1) { // VIP
+            if (clienteSelecionado != null) {
+                cliente = clienteSelecionado;
+            } else if (tipoClienteCombo.getSelectedIndex() == 1) { // VIP
                 if (descontoField.getText().trim().isEmpty()) {
                     throw new IllegalArgumentException("Desconto é obrigatório para clientes VIP");
                 }
@@ -122,9 +209,6 @@ public class ReservaPanel extends JPanel {
                 );
             }
             
-            // Salvar cliente no banco de dados
-            cliente.salvar();
-            
             // Obter número da mesa e horário
             int numeroMesa = Integer.parseInt(mesaField.getText());
             LocalDateTime horario = LocalDateTime.parse(
@@ -132,14 +216,11 @@ public class ReservaPanel extends JPanel {
                 DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")
             );
             
-            // Fazer a reserva através do controller
-            controller.fazerReserva(cliente, numeroMesa, horario);
-            
-            // Mensagem de sucesso e limpeza dos campos
-            JOptionPane.showMessageDialog(this, 
-                "Reserva realizada com sucesso!", 
-                "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            limparCampos();
+            // Fazer a reserva pelo controle de admissão (o cliente é salvo na mesma transação),
+            // sem bloquear a EDT enquanto o pedido espera na fila
+            reservarButton.setEnabled(false);
+            ADMISSAO.enviar(ORIGEM, chaveRequisicao, cliente, numeroMesa, horario, 0)
+                .whenComplete((id, erro) -> SwingUtilities.invokeLater(() -> concluirReserva(erro)));
             
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, 
@@ -150,12 +231,36 @@ public class ReservaPanel extends JPanel {
                 "Formato de horário inválido. Use dd/MM/yyyy HH:mm", 
                 "Erro", JOptionPane.ERROR_MESSAGE);
         } catch (IllegalArgumentException | IllegalStateException ex) {
+            // Inclui a recusa imediata por sobrecarga
+            reservarButton.setEnabled(true);
             JOptionPane.showMessageDialog(this, 
                 ex.getMessage(), 
                 "Erro", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException ex) {
+        }
+    }
+    
+    /**
+     * Mostra o resultado da reserva enviada (chamado na EDT)
+     * @param erro Exceção que impediu a reserva, ou null se ela foi feita
+     */
+    private void concluirReserva(Throwable erro) {
+        reservarButton.setEnabled(true);
+        if (erro instanceof CompletionException && erro.getCause() != null) {
+            erro = erro.getCause();
+        }
+        if (erro == null) {
+            // Mensagem de sucesso e limpeza dos campos
             JOptionPane.showMessageDialog(this, 
-                "Erro no banco de dados: " + ex.getMessage(), 
+                "Reserva realizada com sucesso!", 
+                "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+            limparCampos();
+        } else if (erro instanceof SQLException) {
+            JOptionPane.showMessageDialog(this, 
+                "Erro no banco de dados: " + erro.getMessage(), 
+                "Erro", JOptionPane.ERROR_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this, 
+                erro.getMessage(), 
                 "Erro", JOptionPane.ERROR_MESSAGE);
         }
     }
@@ -164,11 +269,20 @@ public class ReservaPanel extends JPanel {
      * Limpa todos os campos do formulário
      */
     private void limparCampos() {
-        nomeField.setText("");
-        telefoneField.setText("");
+        preenchendo = true;
+        try {
+            nomeField.setText("");
+            telefoneField.setText("");
+        } finally {
+            preenchendo = false;
+        }
+        clienteSelecionado = null;
+        sugestoesPopup.setVisible(false);
         tipoClienteCombo.setSelectedIndex(0);
         descontoField.setText("");
         mesaField.setText("");
         horarioField.setValue(LocalDateTime.now().plusHours(1));
+        // Próximo formulário é uma nova requisição
+        chaveRequisicao = UUID.randomUUID().toString();
     }
 }
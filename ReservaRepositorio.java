@@ -0,0 +1,95 @@
+package model;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acesso ao armazenamento de reservas
+ * Implementado em SQLite (SQLiteReservaRepositorio) e em memória (MemoriaReservaRepositorio)
+ */
+public interface ReservaRepositorio {
+
+    /**
+     * Salva uma nova reserva e atribui o ID gerado
+     * (não altera a mesa; quem reserva marca a mesa como ocupada)
+     * @param reserva Reserva a ser salva
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    void salvar(Reserva reserva) throws SQLException;
+
+    /**
+     * Verifica se já existe reserva para a mesa no horário
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    boolean existeReserva(int numeroMesa, LocalDateTime horario) throws SQLException;
+
+    /**
+     * Lista os números das mesas que têm reserva no horário
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Integer> mesasReservadasNoHorario(LocalDateTime horario) throws SQLException;
+
+    /**
+     * Salva as reservas de um grupo em mesas juntadas e marca as mesas como ocupadas,
+     * de forma atômica; todas recebem o mesmo grupo e são canceladas juntas
+     * @param reservas Uma reserva por mesa do grupo
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    void salvarGrupo(List<Reserva> reservas) throws SQLException;
+
+    /**
+     * Remove a reserva e libera a mesa, de forma atômica
+     * Se a reserva for de um grupo em mesas juntadas, o grupo inteiro é cancelado.
+     * As notificações ainda pendentes da reserva são descartadas
+     * @return true se a reserva existia
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    boolean cancelar(int idReserva) throws SQLException;
+
+    /**
+     * Remove todas as reservas do dia e libera as mesas, de forma atômica,
+     * descartando as notificações ainda pendentes delas
+     * @return Quantidade de reservas canceladas
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    int cancelarDoDia(LocalDate dia) throws SQLException;
+
+    /**
+     * Lista as reservas ativas (não arquivadas) com cliente e mesa, ordenadas pelo horário
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Reserva> listarTodas() throws SQLException;
+
+    /**
+     * Lista as reservas ativas cujo nome do cliente contém o texto, ordenadas pelo horário
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Reserva> buscarPorNomeCliente(String nome) throws SQLException;
+
+    /**
+     * Lista as reservas ativas como linhas somente leitura, ordenadas pelo horário
+     * (mais leve que listarTodas; ver LinhaReserva)
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<LinhaReserva> listarLinhas() throws SQLException;
+
+    /**
+     * Lista como linhas somente leitura as reservas ativas cujo nome do cliente contém o texto
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<LinhaReserva> buscarLinhasPorNomeCliente(String nome) throws SQLException;
+
+    /**
+     * Lista todas as reservas, incluindo as arquivadas, ordenadas pelo horário
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Reserva> listarHistorico() throws SQLException;
+
+    /**
+     * Busca pelo nome do cliente em todas as reservas, incluindo as arquivadas
+     * @throws SQLException em caso de erro no armazenamento
+     */
+    List<Reserva> buscarHistoricoPorNomeCliente(String nome) throws SQLException;
+}
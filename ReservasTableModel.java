@@ -0,0 +1,72 @@
+package view;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import model.LinhaReserva;
+
+/**
+ * Modelo de tabela que exibe as linhas de reserva diretamente, sem copiar
+ * cada valor para um vetor de células como o DefaultTableModel
+ */
+public class ReservasTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUNAS = {"ID", "Cliente", "Telefone", "Mesa", "Horário", "Pessoas"};
+    private List<LinhaReserva> linhas = new ArrayList<>();
+
+    /**
+     * Substitui as linhas exibidas
+     */
+    public void setLinhas(List<LinhaReserva> linhas) {
+        this.linhas = linhas;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Retorna a linha exibida na posição (do modelo, não da visão)
+     */
+    public LinhaReserva getLinha(int indice) {
+        return linhas.get(indice);
+    }
+
+    @Override
+    public int getRowCount() {
+        return linhas.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return COLUNAS[coluna];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int coluna) {
+        switch (coluna) {
+            case 0:
+            case 3:
+            case 5:
+                return Integer.class;
+            default:
+                return String.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        LinhaReserva r = linhas.get(linha);
+        switch (coluna) {
+            case 0: return r.getId();
+            case 1: return r.getClienteNome();
+            case 2: return r.getClienteTelefone();
+            case 3: return r.getMesaNumero();
+            case 4: return r.getHorarioFormatado();
+            case 5: return r.getPessoas();
+            default: throw new IndexOutOfBoundsException("Coluna inválida: " + coluna);
+        }
+    }
+}
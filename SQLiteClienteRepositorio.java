@@ -0,0 +1,68 @@
+package model;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositório de clientes no banco SQLite (restaurante.db)
+ */
+public class SQLiteClienteRepositorio implements ClienteRepositorio {
+    static final String SQL_BUSCAR_POR_ID = "SELECT * FROM clientes WHERE id = ?";
+    static final String SQL_INSERIR = "INSERT INTO clientes (nome, telefone) VALUES (?, ?)";
+    static final String SQL_LISTAR_TODOS = "SELECT * FROM clientes ORDER BY nome";
+
+    @Override
+    public void salvar(Cliente cliente) throws SQLException {
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERIR, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, cliente.getNome());
+            stmt.setString(2, cliente.getTelefone());
+            stmt.executeUpdate();
+            
+            // Obter o ID gerado
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    cliente.setId(rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Cliente buscarPorId(int id) throws SQLException {
+        Connection conn = Database.getInstance().getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_ID)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return lerCliente(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Cliente> listarTodos() throws SQLException {
+        List<Cliente> clientes = new ArrayList<>();
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_LISTAR_TODOS)) {
+            while (rs.next()) {
+                clientes.add(lerCliente(rs));
+            }
+        }
+        return clientes;
+    }
+
+    private static Cliente lerCliente(ResultSet rs) throws SQLException {
+        Cliente c = new Cliente();
+        c.setId(rs.getInt("id"));
+        c.setNome(rs.getString("nome"));
+        c.setTelefone(rs.getString("telefone"));
+        return c;
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositório de mesas no banco SQLite (restaurante.db)
+ * Com o diário de escrita ativo, as gravações fora de transação passam por ele e as leituras
+ * consideram as gravações de mesas que ainda não foram aplicadas no banco
+ */
+public class SQLiteMesaRepositorio implements MesaRepositorio {
+    static final String SQL_SALVAR = "INSERT OR REPLACE INTO mesas (numero, capacidade, ocupada, vip) VALUES (?, ?, ?, ?)";
+    static final String SQL_SALVAR_ADJACENCIA = "INSERT OR IGNORE INTO mesas_adjacentes (mesa_a, mesa_b) VALUES (?, ?)";
+    static final String SQL_BUSCAR_POR_NUMERO = "SELECT * FROM mesas WHERE numero = ?";
+    static final String SQL_LISTAR_TODAS = "SELECT * FROM mesas ORDER BY numero";
+    static final String SQL_LISTAR_DISPONIVEIS = "SELECT * FROM mesas WHERE ocupada = false ORDER BY numero";
+    static final String SQL_LISTAR_ADJACENCIAS = "SELECT mesa_a, mesa_b FROM mesas_adjacentes";
+
+    @Override
+    public void salvar(Mesa mesa) throws SQLException {
+        // Dentro de uma transação a mesa é gravada direto, para ser desfeita junto com ela
+        DiarioEscrita diario = Database.getInstance().getDiario();
+        if (diario != null && !Database.getInstance().isEmTransacao()) {
+            try {
+                diario.registrarMesa(mesa.getNumero(), mesa.getCapacidade(), mesa.isOcupada(), false);
+            } catch (java.io.IOException e) {
+                throw new SQLException("Erro ao gravar no diário de escrita", e);
+            }
+            return;
+        }
+        
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_SALVAR)) {
+            stmt.setInt(1, mesa.getNumero());
+            stmt.setInt(2, mesa.getCapacidade());
+            stmt.setBoolean(3, mesa.isOcupada());
+            stmt.setBoolean(4, false); // Mesa regular
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public Mesa buscarPorNumero(int numero) throws SQLException {
+        Connection conn = Database.getInstance().getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_BUSCAR_POR_NUMERO)) {
+            stmt.setInt(1, numero);
+            Mesa mesa = null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    mesa = lerMesa(rs);
+                }
+            }
+            DiarioEscrita diario = Database.getInstance().getDiario();
+            return diario != null ? diario.sobreporMesaPendente(numero, mesa) : mesa;
+        }
+    }
+
+    @Override
+    public List<Mesa> listarTodas() throws SQLException {
+        List<Mesa> mesas = listar(SQL_LISTAR_TODAS);
+        DiarioEscrita diario = Database.getInstance().getDiario();
+        if (diario != null) {
+            diario.sobreporMesasPendentes(mesas);
+        }
+        return mesas;
+    }
+
+    @Override
+    public List<Mesa> listarDisponiveis() throws SQLException {
+        // Uma mesa ocupada ou liberada ainda no diário muda o resultado do filtro no banco
+        if (Database.getInstance().getDiario() != null) {
+            List<Mesa> mesas = listarTodas();
+            mesas.removeIf(Mesa::isOcupada);
+            return mesas;
+        }
+        return listar(SQL_LISTAR_DISPONIVEIS);
+    }
+
+    @Override
+    public void salvarAdjacencia(int mesaA, int mesaB) throws SQLException {
+        if (mesaA == mesaB) {
+            throw new IllegalArgumentException("Uma mesa não pode ser adjacente a ela mesma");
+        }
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_SALVAR_ADJACENCIA)) {
+            stmt.setInt(1, Math.min(mesaA, mesaB));
+            stmt.setInt(2, Math.max(mesaA, mesaB));
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public List<int[]> listarAdjacencias() throws SQLException {
+        List<int[]> pares = new ArrayList<>();
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_LISTAR_ADJACENCIAS)) {
+            while (rs.next()) {
+                pares.add(new int[] { rs.getInt("mesa_a"), rs.getInt("mesa_b") });
+            }
+        }
+        return pares;
+    }
+
+    private List<Mesa> listar(String sql) throws SQLException {
+        List<Mesa> mesas = new ArrayList<>();
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                mesas.add(lerMesa(rs));
+            }
+        }
+        return mesas;
+    }
+
+    private static Mesa lerMesa(ResultSet rs) throws SQLException {
+        Mesa m = new Mesa();
+        m.setNumero(rs.getInt("numero"));
+        m.setCapacidade(rs.getInt("capacidade"));
+        m.setOcupada(rs.getBoolean("ocupada"));
+        return m;
+    }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caixa de saída de notificações no banco SQLite (restaurante.db)
+ * buscarProntas e atualizar são chamados pela thread do DespachanteNotificacoes e usam
+ * uma conexão própria: enxergam só o que já foi confirmado e não mexem na transação
+ * em andamento na conexão compartilhada
+ */
+public class SQLiteNotificacaoRepositorio implements NotificacaoRepositorio {
+    private static final String COLUNAS = "SELECT n.id, n.reserva_id, n.tipo, n.telefone, n.mensagem, " +
+        "n.enviar_em, n.mesa_numero, n.horario_reserva, n.tentativas, n.status, n.ultimo_erro";
+    // Reservas do diário de escrita ainda não têm ID (reserva_id = 0) e são consideradas ativas;
+    // se forem canceladas, o cancelamento descarta as mensagens pela mesa e pelo horário
+    static final String SQL_PRONTAS = COLUNAS + ", (n.reserva_id = 0 OR r.id IS NOT NULL) AS reserva_ativa " +
+        "FROM notificacoes n LEFT JOIN reservas r ON r.id = n.reserva_id " +
+        "WHERE n.status = 'PENDENTE' AND n.enviar_em <= ? ORDER BY n.enviar_em LIMIT ?";
+    static final String SQL_REGISTRAR = "INSERT INTO notificacoes " +
+        "(reserva_id, tipo, telefone, mensagem, enviar_em, mesa_numero, horario_reserva, tentativas, status) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, 0, 'PENDENTE')";
+    static final String SQL_ATUALIZAR =
+        "UPDATE notificacoes SET status = ?, tentativas = ?, enviar_em = ?, ultimo_erro = ? WHERE id = ?";
+    static final String SQL_FALHAS = COLUNAS + " FROM notificacoes n WHERE n.status = 'FALHA' ORDER BY n.enviar_em";
+
+    @Override
+    public void registrar(Notificacao notificacao) throws SQLException {
+        Connection conn = Database.getInstance().getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_REGISTRAR, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, notificacao.getReservaId());
+            stmt.setString(2, notificacao.getTipo().name());
+            stmt.setString(3, notificacao.getTelefone());
+            stmt.setString(4, notificacao.getMensagem());
+            stmt.setString(5, notificacao.getEnviarEm().toString());
+            stmt.setInt(6, notificacao.getMesaNumero());
+            stmt.setString(7, notificacao.getHorarioReserva() == null ? null : notificacao.getHorarioReserva().toString());
+            stmt.executeUpdate();
+
+            // Obter o ID gerado
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    notificacao.setId(rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Notificacao> buscarProntas(LocalDateTime agora, int limite) throws SQLException {
+        List<Notificacao> prontas = new ArrayList<>();
+
+        try (Connection conn = Database.getInstance().abrirConexao();
+             PreparedStatement stmt = conn.prepareStatement(SQL_PRONTAS)) {
+            // Horários são gravados em ISO-8601, então a ordem textual é a cronológica
+            stmt.setString(1, agora.toString());
+            stmt.setInt(2, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Notificacao n = lerNotificacao(rs);
+                    n.setReservaAtiva(rs.getBoolean("reserva_ativa"));
+                    prontas.add(n);
+                }
+            }
+        }
+        return prontas;
+    }
+
+    @Override
+    public void atualizar(List<Notificacao> notificacoes) throws SQLException {
+        try (Connection conn = Database.getInstance().abrirConexao()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_ATUALIZAR)) {
+                for (Notificacao n : notificacoes) {
+                    stmt.setString(1, n.getStatus().name());
+                    stmt.setInt(2, n.getTentativas());
+                    stmt.setString(3, n.getEnviarEm().toString());
+                    stmt.setString(4, n.getUltimoErro());
+                    stmt.setInt(5, n.getId());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<Notificacao> listarFalhas() throws SQLException {
+        List<Notificacao> falhas = new ArrayList<>();
+        Connection conn = Database.getInstance().getConnection();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_FALHAS)) {
+            while (rs.next()) {
+                falhas.add(lerNotificacao(rs));
+            }
+        }
+        return falhas;
+    }
+
+    private static Notificacao lerNotificacao(ResultSet rs) throws SQLException {
+        Notificacao n = new Notificacao(rs.getInt("reserva_id"),
+            Notificacao.Tipo.valueOf(rs.getString("tipo")), rs.getString("telefone"),
+            rs.getString("mensagem"), LocalDateTime.parse(rs.getString("enviar_em")));
+        n.setId(rs.getInt("id"));
+        n.setMesaNumero(rs.getInt("mesa_numero"));
+        String horarioReserva = rs.getString("horario_reserva");
+        n.setHorarioReserva(horarioReserva == null ? null : LocalDateTime.parse(horarioReserva));
+        n.setTentativas(rs.getInt("tentativas"));
+        n.setStatus(Notificacao.Status.valueOf(rs.getString("status")));
+        n.setUltimoErro(rs.getString("ultimo_erro"));
+        return n;
+    }
+}
@@ -0,0 +1,346 @@
+package model;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositório de reservas no banco SQLite (restaurante.db)
+ * Com o diário de escrita ativo, novas reservas gravadas fora de transação passam por ele
+ * e as demais operações (inclusive as listagens) aguardam até que as reservas pendentes
+ * estejam aplicadas no banco. Dentro de uma transação (ex.: reserva com chave de
+ * idempotência e notificações) a reserva é gravada direto, para ser desfeita junto com ela
+ */
+public class SQLiteReservaRepositorio implements ReservaRepositorio {
+    
+    static final String SQL_INSERIR = "INSERT INTO reservas (cliente_id, mesa_numero, horario, pessoas) VALUES (?, ?, ?, ?)";
+    static final String SQL_EXISTE_RESERVA = "SELECT COUNT(*) FROM reservas WHERE mesa_numero = ? AND horario = ?";
+    // Remove a reserva e, se ela for de um grupo em mesas juntadas, as demais do grupo.
+    // O OR direto no WHERE leva a varredura completa; com IN (... UNION ...) cada lado usa seu índice
+    static final String SQL_CANCELAR = "DELETE FROM reservas WHERE id IN (SELECT ? UNION " +
+        "SELECT id FROM reservas WHERE grupo <> 0 AND grupo = (SELECT grupo FROM reservas WHERE id = ?)) RETURNING mesa_numero, horario";
+    static final String SQL_LIBERAR_MESA = "UPDATE mesas SET ocupada = 0 WHERE numero = ? AND ocupada = 1";
+    static final String SQL_LIBERAR_MESAS_DO_DIA = "UPDATE mesas SET ocupada = 0 WHERE ocupada = 1 AND numero IN " +
+        "(SELECT mesa_numero FROM reservas WHERE horario >= ? AND horario < ?)";
+    static final String SQL_CANCELAR_DO_DIA = "DELETE FROM reservas WHERE horario >= ? AND horario < ?";
+    // Mensagens da caixa de saída de reservas canceladas; pela mesa e horário porque
+    // as gravadas com a reserva ainda no diário de escrita não têm o ID dela
+    static final String SQL_DESCARTAR_NOTIFICACOES = "UPDATE notificacoes SET status = 'DESCARTADA' " +
+        "WHERE horario_reserva = ? AND mesa_numero = ? AND status = 'PENDENTE'";
+    static final String SQL_DESCARTAR_NOTIFICACOES_DO_DIA = "UPDATE notificacoes SET status = 'DESCARTADA' " +
+        "WHERE horario_reserva >= ? AND horario_reserva < ? AND status = 'PENDENTE'";
+    static final String SQL_MESAS_RESERVADAS = "SELECT mesa_numero FROM reservas WHERE horario = ?";
+    static final String SQL_OCUPAR_MESA = "UPDATE mesas SET ocupada = 1 WHERE numero = ?";
+    static final String SQL_DEFINIR_GRUPO = "UPDATE reservas SET grupo = ? WHERE id = ?";
+    
+    // Consulta base das listagens, com informações de cliente e mesa
+    private static final String COLUNAS_LISTAGEM = "SELECT r.id, r.horario, r.pessoas, " +
+        "c.id as cliente_id, c.nome as cliente_nome, c.telefone as cliente_telefone, " +
+        "m.numero as mesa_numero, m.capacidade as mesa_capacidade, m.ocupada as mesa_ocupada " +
+        "FROM ";
+    private static final String JUNCOES_LISTAGEM = " r " +
+        "JOIN clientes c ON r.cliente_id = c.id " +
+        "JOIN mesas m ON r.mesa_numero = m.numero ";
+    
+    // Apenas a tabela quente (reservas não arquivadas)
+    static final String FILTRO_NOME = "WHERE c.nome LIKE ? ";
+    static final String ORDENACAO = "ORDER BY r.horario";
+    
+    static final String SQL_LISTAGEM = COLUNAS_LISTAGEM + "main.reservas" + JUNCOES_LISTAGEM;
+    
+    // Tabela quente e banco de arquivo juntos
+    static final String SQL_HISTORICO = COLUNAS_LISTAGEM +
+        "(SELECT id, cliente_id, mesa_numero, horario, pessoas FROM main.reservas " +
+        "UNION ALL " +
+        "SELECT id, cliente_id, mesa_numero, horario, pessoas FROM arquivo.reservas)" +
+        JUNCOES_LISTAGEM;
+
+    @Override
+    public void salvar(Reserva reserva) throws SQLException {
+        // Com o diário ativo, o ID só é atribuído quando a reserva for aplicada no banco
+        DiarioEscrita diario = Database.getInstance().getDiario();
+        if (diario != null && !Database.getInstance().isEmTransacao()) {
+            try {
+                diario.registrarReserva(reserva.getCliente().getId(), reserva.getMesa().getNumero(),
+                    reserva.getHorario(), reserva.getPessoas());
+            } catch (java.io.IOException e) {
+                throw new SQLException("Erro ao gravar no diário de escrita", e);
+            }
+            return;
+        }
+        
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERIR, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, reserva.getCliente().getId());
+            stmt.setInt(2, reserva.getMesa().getNumero());
+            stmt.setString(3, reserva.getHorario().toString());
+            stmt.setInt(4, reserva.getPessoas());
+            stmt.executeUpdate();
+            
+            // Obter o ID gerado
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    reserva.setId(rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean existeReserva(int numeroMesa, LocalDateTime horario) throws SQLException {
+        // Reservas ainda no diário de escrita não aparecem na consulta ao banco
+        DiarioEscrita diario = Database.getInstance().getDiario();
+        if (diario != null && diario.temReservaPendente(numeroMesa, horario)) {
+            return true;
+        }
+        
+        Connection conn = Database.getInstance().getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_EXISTE_RESERVA)) {
+            stmt.setInt(1, numeroMesa);
+            stmt.setString(2, horario.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    @Override
+    public List<Integer> mesasReservadasNoHorario(LocalDateTime horario) throws SQLException {
+        // Reservas ainda no diário precisam estar no banco para a consulta enxergá-las
+        aguardarDiario();
+        
+        List<Integer> mesas = new ArrayList<>();
+        Connection conn = Database.getInstance().getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_MESAS_RESERVADAS)) {
+            stmt.setString(1, horario.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    mesas.add(rs.getInt(1));
+                }
+            }
+        }
+        return mesas;
+    }
+
+    @Override
+    public void salvarGrupo(List<Reserva> reservas) throws SQLException {
+        // O grupo é gravado direto no banco, fora do diário, para que os IDs existam na transação
+        aguardarDiario();
+        
+        Database.getInstance().emTransacao(conn -> {
+            try (PreparedStatement inserir = conn.prepareStatement(SQL_INSERIR, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement ocupar = conn.prepareStatement(SQL_OCUPAR_MESA)) {
+                for (Reserva reserva : reservas) {
+                    inserir.setInt(1, reserva.getCliente().getId());
+                    inserir.setInt(2, reserva.getMesa().getNumero());
+                    inserir.setString(3, reserva.getHorario().toString());
+                    inserir.setInt(4, reserva.getPessoas());
+                    inserir.executeUpdate();
+                    try (ResultSet rs = inserir.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            reserva.setId(rs.getInt(1));
+                        }
+                    }
+                    
+                    ocupar.setInt(1, reserva.getMesa().getNumero());
+                    ocupar.executeUpdate();
+                }
+            }
+            
+            // O grupo é identificado pelo ID da primeira reserva
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_DEFINIR_GRUPO)) {
+                for (Reserva reserva : reservas) {
+                    stmt.setInt(1, reservas.get(0).getId());
+                    stmt.setInt(2, reserva.getId());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean cancelar(int idReserva) throws SQLException {
+        aguardarDiario();
+        
+        return Database.getInstance().emTransacao(conn -> {
+            // Remove a reserva (ou o grupo) e obtém mesas e horários na mesma instrução
+            List<Integer> mesas = new ArrayList<>();
+            List<String> horarios = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_CANCELAR)) {
+                stmt.setInt(1, idReserva);
+                stmt.setInt(2, idReserva);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        mesas.add(rs.getInt(1));
+                        horarios.add(rs.getString(2));
+                    }
+                }
+            }
+            if (mesas.isEmpty()) {
+                return false;
+            }
+            
+            // Liberar as mesas (só grava as que estiverem marcadas como ocupadas)
+            // e descartar as mensagens ainda não enviadas
+            try (PreparedStatement liberar = conn.prepareStatement(SQL_LIBERAR_MESA);
+                 PreparedStatement descartar = conn.prepareStatement(SQL_DESCARTAR_NOTIFICACOES)) {
+                for (int i = 0; i < mesas.size(); i++) {
+                    liberar.setInt(1, mesas.get(i));
+                    liberar.executeUpdate();
+                    descartar.setString(1, horarios.get(i));
+                    descartar.setInt(2, mesas.get(i));
+                    descartar.executeUpdate();
+                }
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public int cancelarDoDia(LocalDate dia) throws SQLException {
+        aguardarDiario();
+        
+        // Horários são gravados em ISO-8601, então a ordem textual é a cronológica
+        String inicio = dia.atStartOfDay().toString();
+        String fim = dia.plusDays(1).atStartOfDay().toString();
+        
+        return Database.getInstance().emTransacao(conn -> {
+            // Liberar as mesas que tinham reserva no dia
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_LIBERAR_MESAS_DO_DIA)) {
+                stmt.setString(1, inicio);
+                stmt.setString(2, fim);
+                stmt.executeUpdate();
+            }
+            
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_DESCARTAR_NOTIFICACOES_DO_DIA)) {
+                stmt.setString(1, inicio);
+                stmt.setString(2, fim);
+                stmt.executeUpdate();
+            }
+            
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_CANCELAR_DO_DIA)) {
+                stmt.setString(1, inicio);
+                stmt.setString(2, fim);
+                return stmt.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public List<Reserva> listarTodas() throws SQLException {
+        return listar(SQL_LISTAGEM);
+    }
+
+    @Override
+    public List<Reserva> buscarPorNomeCliente(String nome) throws SQLException {
+        return buscarPorNome(SQL_LISTAGEM, nome);
+    }
+
+    @Override
+    public List<Reserva> listarHistorico() throws SQLException {
+        return listar(SQL_HISTORICO);
+    }
+
+    @Override
+    public List<Reserva> buscarHistoricoPorNomeCliente(String nome) throws SQLException {
+        return buscarPorNome(SQL_HISTORICO, nome);
+    }
+
+    @Override
+    public List<LinhaReserva> listarLinhas() throws SQLException {
+        aguardarDiario();
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_LISTAGEM + ORDENACAO)) {
+            return lerLinhas(rs);
+        }
+    }
+
+    @Override
+    public List<LinhaReserva> buscarLinhasPorNomeCliente(String nome) throws SQLException {
+        aguardarDiario();
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_LISTAGEM + FILTRO_NOME + ORDENACAO)) {
+            stmt.setString(1, "%" + nome + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                return lerLinhas(rs);
+            }
+        }
+    }
+
+    private List<Reserva> listar(String consulta) throws SQLException {
+        aguardarDiario();
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(consulta + ORDENACAO)) {
+            return lerReservas(rs);
+        }
+    }
+
+    private List<Reserva> buscarPorNome(String consulta, String nome) throws SQLException {
+        aguardarDiario();
+        Connection conn = Database.getInstance().getConnection();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(consulta + FILTRO_NOME + ORDENACAO)) {
+            stmt.setString(1, "%" + nome + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                return lerReservas(rs);
+            }
+        }
+    }
+
+    static List<LinhaReserva> lerLinhas(ResultSet rs) throws SQLException {
+        LinhaReserva.Montador montador = new LinhaReserva.Montador();
+        List<LinhaReserva> linhas = new ArrayList<>();
+        while (rs.next()) {
+            linhas.add(montador.ler(rs));
+        }
+        return linhas;
+    }
+
+    static List<Reserva> lerReservas(ResultSet rs) throws SQLException {
+        List<Reserva> reservas = new ArrayList<>();
+        while (rs.next()) {
+            Cliente cliente = new Cliente();
+            cliente.setId(rs.getInt("cliente_id"));
+            cliente.setNome(rs.getString("cliente_nome"));
+            cliente.setTelefone(rs.getString("cliente_telefone"));
+            
+            Mesa mesa = new Mesa();
+            mesa.setNumero(rs.getInt("mesa_numero"));
+            mesa.setCapacidade(rs.getInt("mesa_capacidade"));
+            mesa.setOcupada(rs.getBoolean("mesa_ocupada"));
+            
+            // O construtor não valida o horário: reservas passadas e arquivadas também são listadas
+            Reserva reserva = new Reserva(cliente, mesa, LocalDateTime.parse(rs.getString("horario")));
+            reserva.setId(rs.getInt("id"));
+            reserva.setPessoas(rs.getInt("pessoas"));
+            reservas.add(reserva);
+        }
+        return reservas;
+    }
+
+    /**
+     * Garante que reservas ainda no diário de escrita já estejam no banco
+     * Necessário antes de operações que leem ou alteram reservas diretamente no banco
+     */
+    private static void aguardarDiario() throws SQLException {
+        DiarioEscrita diario = Database.getInstance().getDiario();
+        if (diario != null) {
+            try {
+                diario.aguardarAplicacao();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Operação interrompida", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package model;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Cópia compacta e somente leitura do histórico de reservas (incluindo as arquivadas)
+ * e pedidos para análises
+ * Os dados ficam em colunas de arrays primitivos (uma posição por linha), carregados
+ * uma única vez por uma conexão própria; depois da carga nada mais consulta o banco
+ */
+public class SnapshotReservas {
+    public static final int MINUTOS_POR_DIA = 24 * 60;
+
+    // Reservas ativas e arquivadas, com a capacidade da mesa quando a quantidade de pessoas não foi informada
+    static final String SQL_RESERVAS = "SELECT r.horario, r.mesa_numero, r.cliente_id, " +
+        "COALESCE(NULLIF(r.pessoas, 0), m.capacidade, 0) AS pessoas " +
+        "FROM (SELECT mesa_numero, cliente_id, horario, pessoas FROM main.reservas " +
+        "UNION ALL " +
+        "SELECT mesa_numero, cliente_id, horario, pessoas FROM arquivo.reservas) r " +
+        "LEFT JOIN mesas m ON r.mesa_numero = m.numero";
+    // Valor de cada pedido em centavos
+    static final String SQL_PEDIDOS = "SELECT p.data, p.mesa_numero, " +
+        "COALESCE(SUM(CAST(ROUND(i.quantidade * pr.preco * 100) AS INTEGER)), 0) " +
+        "FROM pedidos p " +
+        "LEFT JOIN itens_pedido i ON i.pedido_id = p.id " +
+        "LEFT JOIN produtos pr ON pr.id = i.produto_id " +
+        "GROUP BY p.id";
+
+    // Colunas das reservas
+    private final int[] minuto;     // minuto desde 1970-01-01 no horário local do restaurante
+    private final short[] mesa;
+    private final int[] cliente;
+    private final byte[] pessoas;
+    private final int totalReservas;
+
+    // Colunas dos pedidos (receita)
+    private final int[] pedidoMinuto;
+    private final short[] pedidoMesa;
+    private final long[] pedidoCentavos;
+    private final int totalPedidos;
+
+    private final int maiorMesa;
+    private final int primeiroDia;
+    private final int ultimoDia;
+
+    private SnapshotReservas(Colunas reservas, Colunas pedidos) {
+        // Mantém só as colunas usadas, cortadas no tamanho exato
+        this.totalReservas = reservas.tamanho;
+        this.minuto = Arrays.copyOf(reservas.minuto, totalReservas);
+        this.mesa = Arrays.copyOf(reservas.mesa, totalReservas);
+        this.cliente = Arrays.copyOf(reservas.inteiro, totalReservas);
+        this.pessoas = Arrays.copyOf(reservas.pequeno, totalReservas);
+        this.totalPedidos = pedidos.tamanho;
+        this.pedidoMinuto = Arrays.copyOf(pedidos.minuto, totalPedidos);
+        this.pedidoMesa = Arrays.copyOf(pedidos.mesa, totalPedidos);
+        this.pedidoCentavos = Arrays.copyOf(pedidos.longo, totalPedidos);
+
+        int maior = 0;
+        int primeiro = Integer.MAX_VALUE;
+        int ultimo = Integer.MIN_VALUE;
+        for (int i = 0; i < totalReservas; i++) {
+            maior = Math.max(maior, mesa[i]);
+            int dia = Math.floorDiv(minuto[i], MINUTOS_POR_DIA);
+            primeiro = Math.min(primeiro, dia);
+            ultimo = Math.max(ultimo, dia);
+        }
+        for (int i = 0; i < totalPedidos; i++) {
+            maior = Math.max(maior, pedidoMesa[i]);
+        }
+        this.maiorMesa = maior;
+        this.primeiroDia = totalReservas == 0 ? 0 : primeiro;
+        this.ultimoDia = totalReservas == 0 ? -1 : ultimo;
+    }
+
+    /**
+     * Carrega o histórico usando uma conexão própria, fechada ao final da carga
+     * Quando a quantidade de pessoas não foi informada, usa a capacidade da mesa
+     * @return Snapshot com as reservas e a receita dos pedidos
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public static SnapshotReservas carregar() throws SQLException {
+        try (Connection conn = Database.getInstance().abrirConexao()) {
+            // Uma transação de leitura garante que reservas e pedidos venham do mesmo instante
+            conn.setAutoCommit(false);
+            try {
+                return new SnapshotReservas(carregarReservas(conn), carregarPedidos(conn));
+            } finally {
+                conn.rollback();
+            }
+        }
+    }
+
+    private static Colunas carregarReservas(Connection conn) throws SQLException {
+        Colunas colunas = new Colunas();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(4096);
+            try (ResultSet rs = stmt.executeQuery(SQL_RESERVAS)) {
+                while (rs.next()) {
+                    int min = minutoEpoch(rs.getString(1));
+                    if (min == Integer.MIN_VALUE) {
+                        continue;
+                    }
+                    colunas.adicionar(min, rs.getInt(2), rs.getInt(3), rs.getInt(4), 0);
+                }
+            }
+        }
+        return colunas;
+    }
+
+    private static Colunas carregarPedidos(Connection conn) throws SQLException {
+        Colunas colunas = new Colunas();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL_PEDIDOS)) {
+            while (rs.next()) {
+                int min = minutoEpoch(rs.getString(1));
+                if (min == Integer.MIN_VALUE) {
+                    continue;
+                }
+                colunas.adicionar(min, rs.getInt(2), 0, 0, rs.getLong(3));
+            }
+        }
+        return colunas;
+    }
+
+    /**
+     * Converte o horário gravado (ISO-8601, ex.: 2024-05-10T19:30) em minutos desde 1970
+     * O horário local é tratado como UTC só para manter dia e hora como foram gravados
+     * @return Minuto, ou Integer.MIN_VALUE se o texto não for um horário válido
+     */
+    static int minutoEpoch(String texto) {
+        if (texto == null) {
+            return Integer.MIN_VALUE;
+        }
+        try {
+            LocalDateTime horario = LocalDateTime.parse(texto.length() > 10 && texto.charAt(10) == ' '
+                ? texto.replace(' ', 'T') : texto);
+            return (int) (horario.toEpochSecond(ZoneOffset.UTC) / 60);
+        } catch (DateTimeParseException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    public int getTotalReservas() { return totalReservas; }
+    public int getTotalPedidos() { return totalPedidos; }
+    public int getMaiorMesa() { return maiorMesa; }
+
+    /**
+     * Quantidade de dias cobertos pelas reservas (do primeiro ao último, inclusive)
+     */
+    public int getDiasCobertos() { return ultimoDia - primeiroDia + 1; }
+
+    int minuto(int i) { return minuto[i]; }
+    int mesa(int i) { return mesa[i]; }
+    int cliente(int i) { return cliente[i]; }
+    int pessoas(int i) { return pessoas[i]; }
+
+    int pedidoMinuto(int i) { return pedidoMinuto[i]; }
+    int pedidoMesa(int i) { return pedidoMesa[i]; }
+    long pedidoCentavos(int i) { return pedidoCentavos[i]; }
+
+    /**
+     * Memória aproximada ocupada pelas colunas, em bytes
+     */
+    public long getBytesColunas() {
+        return (long) minuto.length * 4 + mesa.length * 2L + cliente.length * 4L + pessoas.length
+            + pedidoMinuto.length * 4L + pedidoMesa.length * 2L + pedidoCentavos.length * 8L;
+    }
+
+    /**
+     * Colunas crescentes usadas durante a carga
+     */
+    private static class Colunas {
+        private int[] minuto = new int[1024];
+        private short[] mesa = new short[1024];
+        private int[] inteiro = new int[1024];
+        private byte[] pequeno = new byte[1024];
+        private long[] longo = new long[1024];
+        private int tamanho;
+
+        void adicionar(int min, int numeroMesa, int valorInteiro, int valorPequeno, long valorLongo) {
+            if (tamanho == minuto.length) {
+                int novo = tamanho * 2;
+                minuto = Arrays.copyOf(minuto, novo);
+                mesa = Arrays.copyOf(mesa, novo);
+                inteiro = Arrays.copyOf(inteiro, novo);
+                pequeno = Arrays.copyOf(pequeno, novo);
+                longo = Arrays.copyOf(longo, novo);
+            }
+            minuto[tamanho] = min;
+            mesa[tamanho] = (short) numeroMesa;
+            inteiro[tamanho] = valorInteiro;
+            pequeno[tamanho] = (byte) Math.min(valorPequeno, Byte.MAX_VALUE);
+            longo[tamanho] = valorLongo;
+            tamanho++;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package model;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verifica, com EXPLAIN QUERY PLAN, se as consultas registradas continuam usando índices
+ * Uma consulta quente que passe a varrer uma tabela inteira é uma regressão; consultas
+ * frias (relatórios, histórico) são apenas exibidas. verificarEmBancoTemporario devolve as
+ * regressões sobre um banco temporário populado; o main (ex.: no build) falha com exceção se houver alguma
+ */
+public class VerificadorPlanos {
+    // Linha de plano do tipo "SCAN reservas" ou "SCAN TABLE reservas AS r" (versões antigas do SQLite)
+    private static final Pattern VARREDURA = Pattern.compile("^SCAN (?:TABLE )?(\\S+)(?: AS (\\S+))?(.*)$");
+
+    /**
+     * Todas as consultas verificadas
+     * Ao criar uma consulta nova em um repositório, registre-a aqui
+     */
+    private static final List<ConsultaRegistrada> CONSULTAS = Arrays.asList(
+        quente("Cliente por ID", SQLiteClienteRepositorio.SQL_BUSCAR_POR_ID),
+        quente("Inserir cliente", SQLiteClienteRepositorio.SQL_INSERIR),
+        // Carregada uma vez por execução para o índice de sugestões de clientes
+        fria("Listar clientes", SQLiteClienteRepositorio.SQL_LISTAR_TODOS),
+        quente("Mesa por número", SQLiteMesaRepositorio.SQL_BUSCAR_POR_NUMERO),
+        quente("Salvar mesa", SQLiteMesaRepositorio.SQL_SALVAR),
+        // mesas tem poucas linhas (no máximo 20), então pode ser varrida
+        quente("Listar mesas", SQLiteMesaRepositorio.SQL_LISTAR_TODAS, "mesas"),
+        quente("Listar mesas disponíveis", SQLiteMesaRepositorio.SQL_LISTAR_DISPONIVEIS, "mesas"),
+        quente("Salvar adjacência", SQLiteMesaRepositorio.SQL_SALVAR_ADJACENCIA),
+        quente("Inserir reserva", SQLiteReservaRepositorio.SQL_INSERIR),
+        quente("Conflito de horário", SQLiteReservaRepositorio.SQL_EXISTE_RESERVA),
+        quente("Cancelar reserva", SQLiteReservaRepositorio.SQL_CANCELAR),
+        quente("Mesas reservadas no horário", SQLiteReservaRepositorio.SQL_MESAS_RESERVADAS),
+        quente("Ocupar mesa", SQLiteReservaRepositorio.SQL_OCUPAR_MESA),
+        quente("Definir grupo", SQLiteReservaRepositorio.SQL_DEFINIR_GRUPO),
+        // Poucas linhas (uma por par de mesas vizinhas), lida inteira para montar a planta
+        quente("Adjacências de mesas", SQLiteMesaRepositorio.SQL_LISTAR_ADJACENCIAS, "mesas_adjacentes"),
+        quente("Liberar mesa", SQLiteReservaRepositorio.SQL_LIBERAR_MESA),
+        // mesas tem poucas linhas (no máximo 20), então pode ser varrida
+        quente("Liberar mesas do dia", SQLiteReservaRepositorio.SQL_LIBERAR_MESAS_DO_DIA, "mesas"),
+        quente("Cancelar reservas do dia", SQLiteReservaRepositorio.SQL_CANCELAR_DO_DIA),
+        quente("Descartar notificações da reserva", SQLiteReservaRepositorio.SQL_DESCARTAR_NOTIFICACOES),
+        quente("Descartar notificações do dia", SQLiteReservaRepositorio.SQL_DESCARTAR_NOTIFICACOES_DO_DIA),
+        quente("Listar reservas", SQLiteReservaRepositorio.SQL_LISTAGEM + SQLiteReservaRepositorio.ORDENACAO),
+        quente("Buscar reservas por nome", SQLiteReservaRepositorio.SQL_LISTAGEM
+            + SQLiteReservaRepositorio.FILTRO_NOME + SQLiteReservaRepositorio.ORDENACAO),
+        quente("Arquivar lote (cópia)", ArquivamentoReservas.SQL_COPIAR_LOTE),
+        quente("Arquivar lote (remoção)", ArquivamentoReservas.SQL_REMOVER_LOTE),
+        quente("Chave de idempotência", CacheIdempotencia.SQL_BUSCAR),
+        quente("Gravar chave de idempotência", CacheIdempotencia.SQL_GRAVAR),
+        // O diário aplica SQL_INSERIR e SQL_SALVAR (registradas acima) e grava a sequência junto
+        quente("Diário: gravar sequência aplicada", DiarioEscrita.SQL_GRAVAR_SEQ),
+        quente("Diário: ler sequência aplicada", DiarioEscrita.SQL_LER_SEQ),
+        quente("Registrar notificação", SQLiteNotificacaoRepositorio.SQL_REGISTRAR),
+        quente("Notificações prontas", SQLiteNotificacaoRepositorio.SQL_PRONTAS),
+        quente("Atualizar notificação", SQLiteNotificacaoRepositorio.SQL_ATUALIZAR),
+        fria("Notificações com falha", SQLiteNotificacaoRepositorio.SQL_FALHAS),
+        quente("Limpar chaves vencidas", CacheIdempotencia.SQL_LIMPAR),
+        fria("Histórico de reservas", SQLiteReservaRepositorio.SQL_HISTORICO + SQLiteReservaRepositorio.ORDENACAO),
+        fria("Histórico por nome", SQLiteReservaRepositorio.SQL_HISTORICO
+            + SQLiteReservaRepositorio.FILTRO_NOME + SQLiteReservaRepositorio.ORDENACAO),
+        // Análises: leem todo o histórico de propósito, uma vez por carga
+        fria("Análise: reservas", SnapshotReservas.SQL_RESERVAS),
+        fria("Análise: pedidos", SnapshotReservas.SQL_PEDIDOS)
+    );
+
+    private VerificadorPlanos() {}
+
+    /**
+     * Executa EXPLAIN QUERY PLAN em todas as consultas registradas
+     * @param conn Conexão com o esquema completo (incluindo o banco "arquivo" anexado)
+     * @return Descrição das regressões encontradas (vazia se tudo estiver usando índices)
+     * @throws SQLException em caso de erro no banco de dados
+     */
+    public static List<String> verificar(Connection conn) throws SQLException {
+        List<String> regressoes = new ArrayList<>();
+        for (ConsultaRegistrada consulta : CONSULTAS) {
+            List<String> plano = explicar(conn, consulta.sql);
+            for (String linha : plano) {
+                String tabela = tabelaVarrida(linha);
+                if (tabela != null && consulta.quente && !consulta.podeVarrer(tabela)) {
+                    regressoes.add(consulta.nome + ": varredura completa de " + tabela + " (" + linha + ")");
+                }
+            }
+            System.out.println((consulta.quente ? "[quente] " : "[fria]   ") + consulta.nome);
+            for (String linha : plano) {
+                System.out.println("    " + linha);
+            }
+        }
+        return regressoes;
+    }
+
+    private static List<String> explicar(Connection conn, String sql) throws SQLException {
+        List<String> plano = new ArrayList<>();
+        // Parâmetros não ligados valem NULL; o plano não depende dos valores
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                plano.add(rs.getString("detail"));
+            }
+        }
+        return plano;
+    }
+
+    /**
+     * Retorna a tabela (ou apelido) varrida sem índice por uma linha do plano, ou null
+     */
+    static String tabelaVarrida(String linha) {
+        Matcher m = VARREDURA.matcher(linha.trim());
+        if (!m.matches()) {
+            return null;
+        }
+        String resto = m.group(3);
+        if (resto.contains("USING INDEX") || resto.contains("USING COVERING INDEX")
+                || resto.contains("USING INTEGER PRIMARY KEY") || resto.contains("USING PRIMARY KEY")) {
+            return null;
+        }
+        String tabela = m.group(1);
+        // Subconsultas e linhas constantes não são tabelas
+        if (tabela.startsWith("(") || tabela.equals("CONSTANT") || tabela.equals("SUBQUERY")) {
+            return null;
+        }
+        return m.group(2) != null ? m.group(2) : tabela;
+    }
+
+    private static ConsultaRegistrada quente(String nome, String sql, String... podeVarrer) {
+        return new ConsultaRegistrada(nome, sql, true, podeVarrer);
+    }
+
+    private static ConsultaRegistrada fria(String nome, String sql) {
+        return new ConsultaRegistrada(nome, sql, false);
+    }
+
+    /**
+     * Verifica as consultas e falha (exceção, código de saída diferente de zero) se houver regressão
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> regressoes = verificarEmBancoTemporario();
+        if (regressoes.isEmpty()) {
+            System.out.println("Todas as consultas quentes usam índices");
+            return;
+        }
+        System.err.println("Consultas quentes sem índice:");
+        regressoes.forEach(r -> System.err.println("  " + r));
+        throw new IllegalStateException(regressoes.size() + " consultas quentes sem índice");
+    }
+
+    /**
+     * Cria um banco temporário com o esquema do sistema e dados suficientes para
+     * o planejador escolher como faria em produção, e verifica todas as consultas
+     * @return Descrição das regressões encontradas (vazia se tudo estiver usando índices)
+     * @throws Exception em caso de erro no banco de dados ou no diretório temporário
+     */
+    public static List<String> verificarEmBancoTemporario() throws Exception {
+        File diretorio = Files.createTempDirectory("planos").toFile();
+        File principal = new File(diretorio, "planos.db");
+        File arquivo = new File(diretorio, "planos_arquivo.db");
+        List<String> regressoes;
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + principal.getAbsolutePath())) {
+            Database.anexarArquivo(conn, arquivo.getAbsolutePath());
+            Database.criarTabelas(conn);
+            popular(conn);
+            regressoes = verificar(conn);
+        } finally {
+            principal.delete();
+            arquivo.delete();
+            diretorio.delete();
+        }
+        return regressoes;
+    }
+
+    /**
+     * Popula o banco temporário e coleta estatísticas (ANALYZE)
+     */
+    static void popular(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement mesa = conn.prepareStatement(
+                 "INSERT INTO mesas (numero, capacidade, ocupada, vip) VALUES (?, 4, 0, 0)");
+             PreparedStatement cliente = conn.prepareStatement(
+                 "INSERT INTO clientes (nome, telefone) VALUES (?, ?)");
+             PreparedStatement reserva = conn.prepareStatement(
+                 "INSERT INTO reservas (cliente_id, mesa_numero, horario, pessoas) VALUES (?, ?, ?, 2)")) {
+            for (int i = 1; i <= 20; i++) {
+                mesa.setInt(1, i);
+                mesa.addBatch();
+            }
+            mesa.executeBatch();
+            for (int i = 1; i <= 2000; i++) {
+                cliente.setString(1, "Cliente " + i);
+                cliente.setString(2, String.format("119%08d", i));
+                cliente.addBatch();
+            }
+            cliente.executeBatch();
+            LocalDateTime inicio = LocalDateTime.now().minusDays(365).withMinute(0).withSecond(0).withNano(0);
+            for (int i = 0; i < 20000; i++) {
+                reserva.setInt(1, 1 + i % 2000);
+                reserva.setInt(2, 1 + i % 20);
+                reserva.setString(3, inicio.plusHours(i / 20).toString());
+                reserva.addBatch();
+            }
+            reserva.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    /**
+     * Consulta registrada para verificação de plano
+     */
+    private static class ConsultaRegistrada {
+        private final String nome;
+        private final String sql;
+        private final boolean quente;
+        private final List<String> podeVarrer;
+
+        ConsultaRegistrada(String nome, String sql, boolean quente, String... podeVarrer) {
+            this.nome = nome;
+            this.sql = sql;
+            this.quente = quente;
+            this.podeVarrer = Arrays.asList(podeVarrer);
+        }
+
+        boolean podeVarrer(String tabela) {
+            return podeVarrer.contains(tabela);
+        }
+    }
+}